@@ -0,0 +1,26 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result comes with
+ * its allocation rate next to throughput and the sampled latency percentiles.
+ * Accepts the usual JMH command-line options, e.g. a benchmark regex or -p difficulty=HARD.
+ *
+ * Usage: java -jar sudoku_bench/target/benchmarks.jar [jmh-options]
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
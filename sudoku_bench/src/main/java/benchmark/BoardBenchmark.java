@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Board;
+import model.Difficulty;
+
+/**
+ * Per-keystroke board operations and save/load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private Board board;
+    private Board loaded;
+    private File saveFile;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        board = new Board();
+        board.setInitialPuzzle(Corpus.puzzles(Difficulty.MEDIUM)[0]);
+        loaded = new Board();
+        saveFile = File.createTempFile("sudoku-bench", ".sav");
+        board.saveGame(saveFile.getPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        saveFile.delete();
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        int n = next++;
+        return board.isValidMove((n / 9) % 9, n % 9, n % 9 + 1);
+    }
+
+    @Benchmark
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+
+    @Benchmark
+    public void saveGame() throws IOException {
+        board.saveGame(saveFile.getPath());
+    }
+
+    @Benchmark
+    public Board loadGame() throws IOException {
+        loaded.loadGame(saveFile.getPath());
+        return loaded;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import model.Difficulty;
+import model.SudokuGenerator;
+import model.SudokuSize;
+
+/**
+ * Fixed-seed puzzle corpora, so every benchmark run measures the same puzzles.
+ */
+final class Corpus {
+    static final int SIZE = 64;
+    private static final long BASE_SEED = 0x5EED_0000L;
+
+    private Corpus() {
+    }
+
+    /**
+     * Returns the seed of the i-th puzzle of a corpus.
+     */
+    static long seed(int index) {
+        return BASE_SEED + index;
+    }
+
+    /**
+     * Generates the corpus of a difficulty level.
+     */
+    static int[][][] puzzles(Difficulty difficulty) {
+        int[][][] puzzles = new int[SIZE][][];
+        for (int i = 0; i < SIZE; i++) {
+            puzzles[i] = SudokuGenerator.generate(difficulty, seed(i));
+        }
+        return puzzles;
+    }
+
+    /**
+     * Generates the first 'count' puzzles of a corpus of any size; large sizes
+     * take seconds per puzzle, so their corpora are kept small.
+     */
+    static int[][][] puzzles(SudokuSize size, Difficulty difficulty, int count) {
+        int[][][] puzzles = new int[count][][];
+        for (int i = 0; i < count; i++) {
+            puzzles[i] = SudokuGenerator.generate(size, difficulty, seed(i));
+        }
+        return puzzles;
+    }
+
+    static int[][] copy(int[][] grid) {
+        int[][] copy = new int[grid.length][];
+        for (int i = 0; i < grid.length; i++) {
+            copy[i] = grid[i].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,118 @@
+package benchmark;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.CanonicalForm;
+import model.DancingLinksSolver;
+import model.Difficulty;
+import model.PuzzleMultiplier;
+import model.SudokuGenerator;
+
+/**
+ * Puzzle generation, the removal step it repeats for every hole, derivation
+ * from seed puzzles, and the canonical key used to deduplicate puzzles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+    private static final int KEY_CHECKS = 20; // Transforms checked per corpus puzzle
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public Difficulty difficulty;
+
+    private int[][][] puzzles;
+    private int[][][] givens;
+    private PuzzleMultiplier multiplier;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        givens = Corpus.puzzles(difficulty);
+        Map<Difficulty, int[][][]> seeds = new EnumMap<>(Difficulty.class);
+        for (Difficulty level : Difficulty.values()) {
+            seeds.put(level, level == difficulty ? givens : Corpus.puzzles(level));
+        }
+        multiplier = new PuzzleMultiplier(seeds);
+        random = new SplittableRandom(Corpus.seed(0));
+        checkKeys();
+        puzzles = Corpus.puzzles(difficulty);
+        // Solve the corpus so removal attempts start from full grids
+        DancingLinksSolver solver = new DancingLinksSolver();
+        for (int[][] puzzle : puzzles) {
+            solver.solve(puzzle);
+        }
+    }
+
+    @Benchmark
+    public int[][] generate() {
+        return SudokuGenerator.generate(difficulty, Corpus.seed(next++ % Corpus.SIZE));
+    }
+
+    /**
+     * One removal attempt with the default backtracking uniqueness check,
+     * undone afterwards so each invocation sees the same grid.
+     */
+    @Benchmark
+    public boolean removeNumberIfUnique() {
+        int[][] grid = puzzles[next++ % Corpus.SIZE];
+        int cell = next % 81;
+        int row = cell / 9;
+        int col = cell % 9;
+        int value = grid[row][col];
+        boolean removed = SudokuGenerator.removeNumberIfUnique(grid, row, col);
+        grid[row][col] = value;
+        return removed;
+    }
+
+    /**
+     * A puzzle derived from a corpus seed by a random symmetry transform.
+     */
+    @Benchmark
+    public int[][] derive() {
+        return multiplier.next(difficulty, random);
+    }
+
+    @Benchmark
+    public long canonicalKey() {
+        return CanonicalForm.key(givens[next++ % Corpus.SIZE]);
+    }
+
+    /**
+     * Refuses to time a key that would not deduplicate: every puzzle of the
+     * corpus, and the empty grid, must keep its key under random symmetry transforms.
+     */
+    private void checkKeys() {
+        SplittableRandom transforms = new SplittableRandom(Corpus.seed(1));
+        int[][][] grids = Arrays.copyOf(givens, givens.length + 1);
+        grids[givens.length] = new int[9][9];
+        for (int[][] grid : grids) {
+            long key = CanonicalForm.key(grid);
+            for (int i = 0; i < KEY_CHECKS; i++) {
+                if (CanonicalForm.key(PuzzleMultiplier.transform(grid, transforms)) != key) {
+                    throw new IllegalStateException("Equivalent grids got different canonical keys.");
+                }
+            }
+        }
+    }
+}
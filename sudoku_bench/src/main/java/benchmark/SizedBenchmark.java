@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Difficulty;
+import model.PropagationSolver;
+import model.SudokuGenerator;
+import model.SudokuSize;
+
+/**
+ * Solving and generation per grid size with the {@link PropagationSolver}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SizedBenchmark {
+    private static final int CORPUS_SIZE = 8;
+
+    @Param({"2", "3", "4", "5"})
+    public int boxSize;
+
+    @Param({"EASY", "MEDIUM"})
+    public Difficulty difficulty;
+
+    private SudokuSize size;
+    private int[][][] puzzles;
+    private PropagationSolver solver;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        size = SudokuSize.of(boxSize);
+        puzzles = Corpus.puzzles(size, difficulty, CORPUS_SIZE);
+        solver = new PropagationSolver(size);
+        random = new SplittableRandom(Corpus.seed(CORPUS_SIZE));
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        return solver.countSolutions(puzzles[next++ % CORPUS_SIZE], 2);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return solver.solve(Corpus.copy(puzzles[next++ % CORPUS_SIZE]));
+    }
+
+    @Benchmark
+    public int[][] generate() {
+        return SudokuGenerator.generate(size, difficulty, random.nextLong());
+    }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.BacktrackingSolver;
+import model.DancingLinksSolver;
+import model.Difficulty;
+import model.PropagationSolver;
+import model.SolutionCache;
+import model.SolutionCounter;
+import model.SudokuSize;
+
+/**
+ * Solution counting (limit 2, as in the uniqueness check) with each solver.
+ * "cached" measures a {@link SolutionCache} hit: the corpus fits in the cache,
+ * so past the first round every puzzle is answered without solving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public Difficulty difficulty;
+
+    @Param({"backtracking", "dancingLinks", "propagation", "cached"})
+    public String solver;
+
+    private int[][][] puzzles;
+    private SolutionCounter counter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        puzzles = Corpus.puzzles(difficulty);
+        switch (solver) {
+            case "dancingLinks": counter = new DancingLinksSolver(); break;
+            case "propagation": counter = new PropagationSolver(SudokuSize.SIZE_9); break;
+            case "cached": counter = new SolutionCache(Corpus.SIZE, 1); break;
+            default: counter = new BacktrackingSolver();
+        }
+    }
+
+    @Benchmark
+    public int countSolutions() {
+        return counter.countSolutions(puzzles[next++ % Corpus.SIZE], 2);
+    }
+}
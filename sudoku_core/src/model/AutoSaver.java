@@ -0,0 +1,221 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Saves a {@link Board} in the background after every change.
+ *
+ * Each change encodes the board on the thread that made it, which takes
+ * microseconds, and schedules a write on a single background thread after a
+ * short delay. Changes arriving before that write replace the pending data, so
+ * a burst of moves costs one write and one fsync. The caller never waits for
+ * the disk.
+ *
+ * Every write goes to a temporary file next to the target, is forced to disk,
+ * then renamed over the target in one atomic step: a crash leaves either the
+ * previous save or the new one, never a torn file. {@link Board#loadGame(String)}
+ * picks the temporary file left by a crash before the rename when it is intact
+ * and newer than the target.
+ */
+public final class AutoSaver implements BoardListener, AutoCloseable {
+    public static final long DEFAULT_DELAY_MILLIS = 500;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final Board board;
+    private final Path target;
+    private final long delayMillis;
+    private final ScheduledExecutorService writer;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private volatile IOException lastError;
+
+    private AutoSaver(Board board, Path target, long delayMillis) {
+        this.board = board;
+        this.target = target;
+        this.delayMillis = delayMillis;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true); // close() flushes; the thread itself never keeps the application alive
+            return thread;
+        });
+    }
+
+    /**
+     * Starts saving a board to a file after each change.
+     *
+     * @param board       The board, changed only from one thread at a time.
+     * @param target      The save file.
+     * @param delayMillis How long to wait for more changes before writing.
+     * @return The running saver; close it to write the last changes and stop.
+     */
+    public static AutoSaver start(Board board, Path target, long delayMillis) {
+        if (delayMillis < 0) throw new IllegalArgumentException("The delay must not be negative.");
+        AutoSaver saver = new AutoSaver(board, target, delayMillis);
+        board.addListener(saver);
+        return saver;
+    }
+
+    @Override
+    public void cellsChanged(long lo, long hi) {
+        changes.increment();
+        pending.set(GameCodec.encodeFile(board));
+        if (scheduled.compareAndSet(false, true)) {
+            writer.schedule(this::flushQuietly, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Saves the current state without waiting for the delay. Call it on the
+     * thread that changes the board.
+     *
+     * @return Completes once the state is on disk, or exceptionally with the IOException.
+     */
+    public CompletableFuture<Void> saveNow() {
+        pending.set(GameCodec.encodeFile(board));
+        return CompletableFuture.runAsync(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, writer);
+    }
+
+    /**
+     * Writes the current state to another file, such as a manual save, on the
+     * background thread. Call it on the thread that changes the board.
+     *
+     * @param file The file to write, replaced atomically.
+     * @return Completes once the file is on disk, or exceptionally with the IOException.
+     */
+    public CompletableFuture<Void> saveCopy(Path file) {
+        byte[] data = GameCodec.encodeFile(board);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeAtomically(file, data);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, writer);
+    }
+
+    /** Number of board changes seen. */
+    public long getChangeCount() {
+        return changes.sum();
+    }
+
+    /** Number of files written; far below the change count when changes come in bursts. */
+    public long getWriteCount() {
+        return writes.sum();
+    }
+
+    /**
+     * Returns the error of the last failed background write, or null.
+     */
+    public IOException getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Stops listening, writes any pending change and waits for it to reach the disk.
+     */
+    @Override
+    public void close() {
+        board.removeListener(this);
+        writer.execute(this::flushQuietly);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            lastError = e;
+            System.err.println("ERROR autosaving to " + target + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the latest pending state, if any. Runs on the writer thread.
+     */
+    private void flush() throws IOException {
+        scheduled.set(false); // Changes from now on schedule a new write
+        byte[] data = pending.getAndSet(null);
+        if (data == null) return;
+        writeAtomically(target, data);
+        writes.increment();
+    }
+
+    /**
+     * Returns the temporary file used while writing a save.
+     */
+    static Path tempFile(Path target) {
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    /**
+     * Replaces a file's content so that a crash at any point leaves either the
+     * old content or the new one: write a temporary file, force it to disk,
+     * rename it over the target, then force the directory entry. Falls back to a
+     * plain rename where the file system cannot rename atomically.
+     *
+     * @param target The file to replace or create.
+     * @param data   Its new content.
+     * @throws IOException If the data could not be written; the old content is then intact.
+     */
+    public static void writeAtomically(Path target, byte[] data) throws IOException {
+        Path temp = tempFile(target);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        promote(temp, target);
+    }
+
+    /**
+     * Renames a file that is already on disk over the target in one step, then
+     * forces the directory entry.
+     */
+    static void promote(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory != null) {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            } catch (IOException e) {
+                // Not every platform can open a directory; the rename is then as durable as it gets
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Iterative backtracking solver with preallocated primitive buffers.
+ *
+ * The search keeps an explicit stack of (cell, untried candidates) pairs instead
+ * of recursing, always branches on the empty cell with the fewest candidates
+ * (MRV), and tracks row/column/box masks incrementally. After construction it
+ * allocates nothing, so repeated calls put no pressure on the garbage collector.
+ *
+ * Instances are not thread-safe; use one per thread.
+ */
+public class BacktrackingSolver implements SolutionCounter {
+    private final int[] grid = new int[81];
+    private final int[] rowMasks = new int[9];
+    private final int[] colMasks = new int[9];
+    private final int[] boxMasks = new int[9];
+    private final int[] stackCells = new int[81];     // Cell branched on at each depth
+    private final int[] stackRemaining = new int[81]; // Candidate bits not yet tried at each depth
+    private int filled;
+    private long nodes; // Digits tried by the last search
+
+    @Override
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        if (!load(board) || limit <= 0) return 0;
+        return search(limit, null);
+    }
+
+    /**
+     * Completes a board with a random solution, trying digits in random order.
+     * Used to produce full grids for puzzle generation.
+     *
+     * @param board  A 9x9 integer array, 0 for empty cells. Filled in place on success.
+     * @param random Source of randomness for the digit order.
+     * @return true if the board was successfully filled, false otherwise.
+     */
+    public boolean fill(int[][] board, RandomGenerator random) {
+        if (!load(board) || search(1, random) == 0) return false;
+        for (int i = 0; i < 81; i++) {
+            board[i / 9][i % 9] = grid[i];
+        }
+        return true;
+    }
+
+    /**
+     * Runs the search on the loaded grid. When it stops on the 'limit'-th solution,
+     * that solution is left in 'grid'.
+     *
+     * @param limit  The maximum number of solutions to count.
+     * @param random Source of randomness for the digit order, or null for ascending order.
+     * @return The number of solutions found, never more than 'limit'.
+     */
+    private int search(int limit, RandomGenerator random) {
+        int count = 0;
+        int depth = 0;
+        boolean descend = true;
+        while (true) {
+            if (descend) {
+                if (filled == 81) {
+                    if (++count >= limit) break;
+                } else {
+                    int cell = mostConstrainedCell();
+                    stackCells[depth] = cell;
+                    stackRemaining[depth] = candidates(cell);
+                    depth++;
+                }
+            }
+            if (depth == 0) break; // Every branch explored
+
+            // Undo the digit tried last at the top of the stack, then try the next one
+            int top = depth - 1;
+            int cell = stackCells[top];
+            if (grid[cell] != 0) clear(cell);
+            int remaining = stackRemaining[top];
+            if (remaining == 0) {
+                depth--;
+                descend = false;
+                continue;
+            }
+            int bit = random == null ? remaining & -remaining : randomBit(remaining, random);
+            stackRemaining[top] = remaining & ~bit;
+            nodes++;
+            place(cell, Integer.numberOfTrailingZeros(bit) + 1);
+            descend = true;
+        }
+        return count;
+    }
+
+    /**
+     * Loads the board into the buffers.
+     *
+     * @return false if two givens already clash.
+     */
+    private boolean load(int[][] board) {
+        for (int i = 0; i < 9; i++) {
+            rowMasks[i] = 0;
+            colMasks[i] = 0;
+            boxMasks[i] = 0;
+        }
+        filled = 0;
+        nodes = 0;
+        for (int i = 0; i < 81; i++) {
+            grid[i] = 0;
+            int value = board[i / 9][i % 9];
+            if (value == 0) continue;
+            if ((candidates(i) & (1 << (value - 1))) == 0) return false;
+            place(i, value);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the empty cell with the fewest candidates; a cell with none ends the scan early.
+     */
+    private int mostConstrainedCell() {
+        int best = -1;
+        int bestCount = 10;
+        for (int i = 0; i < 81; i++) {
+            if (grid[i] != 0) continue;
+            int count = Integer.bitCount(candidates(i));
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+                if (count <= 1) break; // Cannot do better than a dead end or a forced move
+            }
+        }
+        return best;
+    }
+
+    private int candidates(int cell) {
+        int row = cell / 9;
+        int col = cell % 9;
+        return ~(rowMasks[row] | colMasks[col] | boxMasks[ConstraintMasks.boxIndex(row, col)]) & ConstraintMasks.ALL_DIGITS;
+    }
+
+    private void place(int cell, int digit) {
+        int row = cell / 9;
+        int col = cell % 9;
+        int bit = 1 << (digit - 1);
+        grid[cell] = digit;
+        rowMasks[row] |= bit;
+        colMasks[col] |= bit;
+        boxMasks[ConstraintMasks.boxIndex(row, col)] |= bit;
+        filled++;
+    }
+
+    private void clear(int cell) {
+        int row = cell / 9;
+        int col = cell % 9;
+        int bit = ~(1 << (grid[cell] - 1));
+        grid[cell] = 0;
+        rowMasks[row] &= bit;
+        colMasks[col] &= bit;
+        boxMasks[ConstraintMasks.boxIndex(row, col)] &= bit;
+        filled--;
+    }
+
+    /**
+     * Picks one set bit of the mask uniformly at random. Drawing without
+     * replacement this way is a primitive shuffle of the candidate digits.
+     */
+    private static int randomBit(int mask, RandomGenerator random) {
+        for (int n = random.nextInt(Integer.bitCount(mask)); n > 0; n--) {
+            mask &= mask - 1; // Drop the lowest set bit
+        }
+        return mask & -mask;
+    }
+}
@@ -0,0 +1,621 @@
+package model;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * The Sudoku grid being played.
+ *
+ * Cell values live in a single {@code byte[81]} in row-major order and the
+ * fixed (given) cells in a two-{@code long} bitset, so a board is a handful of
+ * flat arrays that are cheap to hold in large numbers and cheap to copy.
+ */
+public class Board {
+    private static final BoardListener[] NO_LISTENERS = new BoardListener[0];
+
+    // Cell indices of the 27 units: rows, then columns, then 3x3 blocks
+    private static final int[][] UNITS = SudokuSize.SIZE_9.units();
+
+    private final byte[] values = new byte[81];
+    private long fixedLo; // Fixed flags of cells 0-63
+    private long fixedHi; // Fixed flags of cells 64-80
+    private final ConstraintMasks masks; // Row/column/box digit masks kept in sync with 'values'
+    private int filled; // Number of non-empty cells
+    private MoveJournal journal; // Move history, null until started
+    private BoardListener[] listeners = NO_LISTENERS; // Replaced, never mutated, on add and remove
+
+    // Open batch: depth, cells written since it began, their values and the fixed flags back then
+    private int batchDepth;
+    private long dirtyLo;
+    private long dirtyHi;
+    private byte[] batchValues;
+    private long batchFixedLo;
+    private long batchFixedHi;
+
+    public Board() { // Renamed from Tabuleiro()
+        this.masks = new ConstraintMasks();
+    }
+
+    private Board(Board other) {
+        System.arraycopy(other.values, 0, this.values, 0, 81);
+        this.fixedLo = other.fixedLo;
+        this.fixedHi = other.fixedHi;
+        this.masks = other.masks.copy();
+        this.filled = other.filled;
+    }
+
+    /**
+     * Returns an independent copy of this board, including its fixed cells.
+     * The copy has no move journal and no listeners.
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * Sets the initial Sudoku puzzle on the board.
+     * Non-zero values in the 'puzzle' are considered fixed cells.
+     *
+     * @param puzzle A 9x9 integer array representing the puzzle.
+     * 0 for empty cells, 1-9 for fixed numbers.
+     * @throws IllegalArgumentException If the puzzle is not 9x9 or holds a value outside 0-9.
+     */
+    public void setInitialPuzzle(int[][] puzzle) {
+        if (puzzle == null || puzzle.length != 9 || puzzle[0].length != 9) {
+            throw new IllegalArgumentException("The puzzle must be a 9x9 matrix.");
+        }
+        for (int i = 0; i < 9; i++) { // Checked up front, so a bad puzzle leaves the board as it was
+            if (puzzle[i] == null || puzzle[i].length != 9) {
+                throw new IllegalArgumentException("The puzzle must be a 9x9 matrix.");
+            }
+            for (int j = 0; j < 9; j++) {
+                checkValue(puzzle[i][j], i, j);
+            }
+        }
+
+        beginBatch(); // Listeners see one update for the whole puzzle
+        try {
+            masks.clear();
+            fixedLo = 0;
+            fixedHi = 0;
+            filled = 0;
+            for (int i = 0; i < 9; i++) {
+                for (int j = 0; j < 9; j++) {
+                    int value = puzzle[i][j];
+                    markDirty(i * 9 + j);
+                    values[i * 9 + j] = (byte) value;
+                    if (value != 0) { // Non-zero values of the puzzle are the fixed cells
+                        setFixedBit(i * 9 + j);
+                        masks.place(i, j, value);
+                        filled++;
+                    }
+                }
+            }
+            if (journal != null) journal.reset(this);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Registers a listener notified after every change of the cells.
+     */
+    public void addListener(BoardListener listener) {
+        BoardListener[] updated = Arrays.copyOf(listeners, listeners.length + 1);
+        updated[listeners.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Starts a batch: until the matching {@link #endBatch()}, listeners are not told
+     * about each move but get a single coalesced {@link BoardListener#cellsChanged}
+     * call at the end. Batches nest; only the outermost one reports.
+     */
+    public void beginBatch() {
+        if (batchDepth++ == 0) {
+            if (batchValues == null) batchValues = new byte[81];
+            dirtyLo = 0;
+            dirtyHi = 0;
+            batchFixedLo = fixedLo;
+            batchFixedHi = fixedHi;
+        }
+    }
+
+    /**
+     * Ends a batch. When the outermost batch ends, listeners are told about the
+     * cells whose value or fixed state differs from when it began, if any.
+     *
+     * @throws IllegalStateException If no batch is open.
+     */
+    public void endBatch() {
+        if (batchDepth == 0) throw new IllegalStateException("No batch to end.");
+        if (--batchDepth > 0) return;
+        long lo = fixedLo ^ batchFixedLo;
+        long hi = fixedHi ^ batchFixedHi;
+        for (long bits = dirtyLo; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            if (values[cell] != batchValues[cell]) lo |= 1L << cell;
+        }
+        for (long bits = dirtyHi; bits != 0; bits &= bits - 1) {
+            int cell = 64 + Long.numberOfTrailingZeros(bits);
+            if (values[cell] != batchValues[cell]) hi |= 1L << (cell - 64);
+        }
+        if ((lo | hi) != 0) {
+            for (BoardListener listener : listeners) {
+                listener.cellsChanged(lo, hi);
+            }
+        }
+    }
+
+    public void removeListener(BoardListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                BoardListener[] updated = new BoardListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, updated, 0, i);
+                System.arraycopy(listeners, i + 1, updated, i, updated.length - i);
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    public int getCellValue(int row, int col) { 
+        return values[row * 9 + col];
+    }
+
+    /**
+     * Sets the value of a non-fixed cell; fixed cells are left unchanged.
+     *
+     * @param value 0 to clear the cell, 1-9 otherwise.
+     * @throws IllegalArgumentException If the value is outside 0-9.
+     */
+    public void setCellValue(int row, int col, int value) {
+        checkValue(value, row, col);
+        if (!isCellFixed(row, col)) {
+            int index = row * 9 + col;
+            int old = values[index];
+            if (old == value) return;
+            write(index, value);
+            if (journal != null) journal.record(this, index, old, value);
+        }
+    }
+
+    private static void checkValue(int value, int row, int col) {
+        if (value < 0 || value > 9) {
+            throw new IllegalArgumentException("Invalid value " + value + " at row " + row + ", column " + col);
+        }
+    }
+
+    /**
+     * Starts recording moves for undo and redo, from the current state on.
+     * A journal already started is kept as is.
+     *
+     * @param capacity Number of moves that can be undone, see {@link MoveJournal#DEFAULT_CAPACITY}.
+     * @return The journal of this board.
+     */
+    public MoveJournal startJournal(int capacity) {
+        if (journal == null) {
+            journal = new MoveJournal(this, capacity);
+        }
+        return journal;
+    }
+
+    /**
+     * Returns the move journal, or null if none was started.
+     */
+    public MoveJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Undoes the last move recorded by the journal.
+     *
+     * @return false if there is no journal or nothing to undo.
+     */
+    public boolean undo() {
+        return journal != null && journal.undo(this);
+    }
+
+    /**
+     * Redoes the last undone move.
+     *
+     * @return false if there is no journal or nothing to redo.
+     */
+    public boolean redo() {
+        return journal != null && journal.redo(this);
+    }
+
+    public boolean isCellFixed(int row, int col) {
+        return isFixed(row * 9 + col);
+    }
+
+    /**
+     * Checks if a given value is valid at a specific position on the board,
+     * considering Sudoku rules (row, column, 3x3 block).
+     *
+     * Runs in constant time on the incrementally maintained constraint masks.
+     *
+     * @param row   Row index of the cell to check.
+     * @param col   Column index of the cell to check.
+     * @param value The value to be checked.
+     * @return true if the value is valid at the position, false otherwise.
+     */
+    public boolean isValidMove(int row, int col, int value) {
+        if (value == 0) return true; // A 0 (empty cell) is always valid for placement
+
+        // The constraint masks count every occurrence of 'value' in the cell's row, column
+        // and 3x3 block; the cell itself is skipped by discounting its own occurrence.
+        int own = values[row * 9 + col] == value ? 1 : 0;
+        return !masks.conflicts(row, col, value, own);
+    }
+
+    /**
+     * Checks if the board is completely filled and all cells are valid,
+     * indicating a victory. Answers in constant time from the running
+     * filled-cell and conflict counters.
+     * @return true if the game is won, false otherwise.
+     */
+    public boolean isSolved() {
+        // A full grid in which no row, column or block repeats a digit is solved
+        return filled == 81 && masks.duplicateCount() == 0;
+    }
+
+    /**
+     * Returns the digits that can still be placed in an empty cell, as pencil marks:
+     * bit (d - 1) is set when digit d appears nowhere in the cell's row, column and block.
+     * Answers in constant time from the constraint masks.
+     *
+     * @return The candidate mask, 0 for a filled cell.
+     */
+    public int candidates(int row, int col) {
+        return values[row * 9 + col] != 0 ? 0 : masks.candidates(row, col);
+    }
+
+    /**
+     * Finds a move that follows logically from the current values: first an empty
+     * cell left with a single candidate (naked single), then a digit that fits only
+     * one empty cell of a row, column or block (hidden single).
+     *
+     * The values are taken as they are, so a wrong value on the board can lead to a
+     * wrong hint; check {@link #conflictCount()} or the solution for that.
+     *
+     * @return The hint packed as {@code (row * 9 + col) << 4 | digit}, or -1 when
+     *         neither kind of single exists.
+     */
+    public int nextHint() {
+        for (int i = 0; i < 81; i++) {
+            if (values[i] != 0) continue;
+            int candidates = masks.candidates(i / 9, i % 9);
+            if (Integer.bitCount(candidates) == 1) {
+                return i << 4 | (Integer.numberOfTrailingZeros(candidates) + 1);
+            }
+        }
+        for (int[] unit : UNITS) {
+            // Digits seen as a candidate in exactly one empty cell of the unit
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                if (values[cell] != 0) continue;
+                int candidates = masks.candidates(cell / 9, cell % 9);
+                twice |= once & candidates;
+                once |= candidates;
+            }
+            int single = once & ~twice;
+            if (single == 0) continue;
+            int bit = Integer.lowestOneBit(single);
+            for (int cell : unit) {
+                if (values[cell] == 0 && (masks.candidates(cell / 9, cell % 9) & bit) != 0) {
+                    return cell << 4 | (Integer.numberOfTrailingZeros(bit) + 1);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the rule violations currently on the board: a digit appearing k times
+     * in a row, column or 3x3 block adds k - 1 for that unit.
+     * @return 0 if no placed digit conflicts with another one.
+     */
+    public int conflictCount() {
+        return masks.duplicateCount();
+    }
+
+    /**
+     * Saves the current board state (user values) and the initial fixed puzzle
+     * in the packed binary format described in {@link GameCodec}.
+     * The file is replaced atomically, so a crash never leaves a partial save.
+     * @param path File path to save to.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void saveGame(String path) throws IOException { // Renamed from salvarPartida
+        AutoSaver.writeAtomically(Paths.get(path), GameCodec.encodeFile(this));
+    }
+
+    /**
+     * Loads a previous game, restoring fixed values and user moves.
+     * Both the binary format and the legacy text format are accepted.
+     * A crash between writing a save and renaming it into place leaves the
+     * newer data in the temporary file: that file is loaded and moved over the
+     * target when it is intact and no older than the target, or when the
+     * target is missing or corrupted. An older temporary file is deleted.
+     * @param path File path to load from.
+     * @throws IOException If an I/O error occurs or the file is corrupted.
+     */
+    public void loadGame(String path) throws IOException {
+        Path target = Paths.get(path);
+        Path temp = AutoSaver.tempFile(target);
+        if (Files.exists(temp)) {
+            boolean tempIntact = isIntactSave(temp);
+            boolean targetIntact = Files.exists(target) && isIntactSave(target);
+            boolean tempNewer = !targetIntact
+                    || Files.getLastModifiedTime(temp).compareTo(Files.getLastModifiedTime(target)) >= 0;
+            if (tempIntact && tempNewer) {
+                loadFrom(temp);
+                AutoSaver.promote(temp, target);
+                return;
+            }
+            if (targetIntact && !tempNewer) {
+                Files.deleteIfExists(temp); // Left by an older interrupted save
+            }
+        }
+        loadFrom(target);
+    }
+
+    /**
+     * Whether a file holds a complete save, in either format; decoded into a scratch board.
+     */
+    private static boolean isIntactSave(Path path) {
+        try {
+            byte[] data = Files.readAllBytes(path);
+            if (GameCodec.isBinaryFile(data)) {
+                GameCodec.decodeFile(data, new Board());
+            } else {
+                new Board().importTextGame(path.toString());
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void loadFrom(Path path) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        if (GameCodec.isBinaryFile(data)) {
+            GameCodec.decodeFile(data, new Board()); // A file failing halfway must not leave this board half loaded
+            GameCodec.decodeFile(data, this);
+        } else {
+            importTextGame(path.toString());
+        }
+    }
+
+    /**
+     * Replaces the whole board state with packed values, as decoded by {@link GameCodec}.
+     *
+     * @param values  The 81 cell values in row-major order.
+     * @param fixedLo Fixed flags of cells 0-63, one bit per cell.
+     * @param fixedHi Fixed flags of cells 64-80, one bit per cell.
+     */
+    void restore(byte[] values, long fixedLo, long fixedHi) {
+        beginBatch();
+        try {
+            for (int i = 0; i < 81; i++) {
+                markDirty(i);
+            }
+            System.arraycopy(values, 0, this.values, 0, 81);
+            this.fixedLo = fixedLo;
+            this.fixedHi = fixedHi;
+            rebuildMasks();
+            if (journal != null) journal.reset(this);
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Installs a journal decoded along with this board's state, replacing any current one.
+     */
+    void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Captures the current cell values, packed 4 bits per cell into 6 longs.
+     * Fixed cells are not part of the snapshot; restore it on the same puzzle.
+     *
+     * @return The packed values.
+     */
+    public long[] snapshot() {
+        long[] packed = new long[6];
+        snapshotInto(packed);
+        return packed;
+    }
+
+    /**
+     * Packs the current cell values into an existing 6-long array, as {@link #snapshot()} does.
+     */
+    void snapshotInto(long[] packed) {
+        Arrays.fill(packed, 0L);
+        for (int i = 0; i < 81; i++) {
+            packed[i >>> 4] |= (long) values[i] << ((i & 15) << 2);
+        }
+    }
+
+    /**
+     * Restores cell values captured by {@link #snapshot()} on this puzzle.
+     * The move journal, if any, restarts from the restored state.
+     *
+     * @param snapshot The packed values.
+     */
+    public void restoreSnapshot(long[] snapshot) {
+        restoreValues(snapshot);
+        if (journal != null) journal.reset(this);
+    }
+
+    /**
+     * Restores packed cell values without touching the journal; used by the journal itself.
+     */
+    void restoreValues(long[] snapshot) {
+        beginBatch();
+        try {
+            for (int i = 0; i < 81; i++) {
+                markDirty(i);
+                values[i] = (byte) ((snapshot[i >>> 4] >>> ((i & 15) << 2)) & 0xF);
+            }
+            rebuildMasks();
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Changes a non-fixed cell by its row-major index without recording the move;
+     * used by the journal to undo and redo.
+     */
+    void applyMove(int index, int value) {
+        if (!isFixed(index)) write(index, value);
+    }
+
+    /**
+     * Returns the value of a cell by its row-major index (0-80).
+     */
+    int valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Checks whether the cell at a row-major index (0-80) is fixed.
+     */
+    boolean isFixed(int index) {
+        return ((index < 64 ? fixedLo >>> index : fixedHi >>> (index - 64)) & 1L) != 0;
+    }
+
+    private void setFixedBit(int index) {
+        if (index < 64) {
+            fixedLo |= 1L << index;
+        } else {
+            fixedHi |= 1L << (index - 64);
+        }
+    }
+
+    /**
+     * Imports a game saved in the legacy comma-separated text format
+     * (the fixed values block, a blank line, then the current values block).
+     * @param path File path to load from.
+     * @throws IOException If an I/O error occurs or the file is corrupted.
+     */
+    public void importTextGame(String path) throws IOException {
+        byte[] loaded = new byte[81];
+        boolean[] fixed = new boolean[81];
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            // --- Load initial fixed values ---
+            for (int i = 0; i < 9; i++) {
+                String line = reader.readLine();
+                if (line == null) throw new IOException("Save file incomplete (initial values).");
+                String[] valuesStr = line.split(",");
+                if (valuesStr.length != 9) throw new IOException("Invalid line format (initial values) on line " + (i + 1));
+                for (int j = 0; j < 9; j++) {
+                    fixed[i * 9 + j] = parseTextValue(valuesStr[j], "initial", i, j) != 0;
+                }
+            }
+
+            reader.readLine(); // Read and discard the blank separation line
+
+            // --- Load current state ---
+            for (int i = 0; i < 9; i++) {
+                String line = reader.readLine();
+                if (line == null) throw new IOException("Save file incomplete (current values).");
+                String[] valuesStr = line.split(",");
+                if (valuesStr.length != 9) throw new IOException("Invalid line format (current values) on line " + (i + 1));
+                for (int j = 0; j < 9; j++) {
+                    loaded[i * 9 + j] = (byte) parseTextValue(valuesStr[j], "current", i, j);
+                }
+            }
+        }
+
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < 81; i++) {
+            if (!fixed[i]) continue;
+            if (i < 64) {
+                lo |= 1L << i;
+            } else {
+                hi |= 1L << (i - 64);
+            }
+        }
+        restore(loaded, lo, hi);
+    }
+
+    private static int parseTextValue(String text, String block, int row, int col) throws IOException {
+        int value;
+        try {
+            value = Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid value in " + block + " values on line " + (row + 1) + ", column " + (col + 1), e);
+        }
+        if (value < 0 || value > 9) {
+            throw new IOException("Value out of range in " + block + " values on line " + (row + 1) + ", column " + (col + 1));
+        }
+        return value;
+    }
+
+    /**
+     * Changes a cell's value, keeping the masks and the filled-cell count in sync.
+     */
+    private void write(int index, int value) {
+        int row = index / 9;
+        int col = index % 9;
+        int old = values[index];
+        if (batchDepth > 0) markDirty(index);
+        if (old != 0) {
+            masks.remove(row, col, old);
+            filled--;
+        }
+        values[index] = (byte) value;
+        if (value != 0) {
+            masks.place(row, col, value);
+            filled++;
+        }
+        if (batchDepth == 0 && listeners.length > 0) {
+            int change = CellChange.pack(index, old, value);
+            for (BoardListener listener : listeners) {
+                listener.cellChanged(change);
+            }
+        }
+    }
+
+    private boolean isDirty(int index) {
+        return index < 64 ? (dirtyLo & 1L << index) != 0 : (dirtyHi & 1L << (index - 64)) != 0;
+    }
+
+    /**
+     * Marks a cell as written in the open batch, remembering its current value
+     * as the one before the batch unless it was already marked.
+     */
+    private void markDirty(int index) {
+        if (isDirty(index)) return;
+        batchValues[index] = values[index];
+        if (index < 64) {
+            dirtyLo |= 1L << index;
+        } else {
+            dirtyHi |= 1L << (index - 64);
+        }
+    }
+
+    /**
+     * Recomputes the constraint masks and the filled-cell count from the current cell values.
+     */
+    private void rebuildMasks() {
+        masks.clear();
+        filled = 0;
+        for (int i = 0; i < 81; i++) {
+            if (values[i] != 0) {
+                masks.place(i / 9, i % 9, values[i]);
+                filled++;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * Receives the changes made to a {@link Board}, so views and other consumers
+ * can update only what changed instead of re-reading the whole grid.
+ *
+ * A single move arrives as one {@link CellChange}-packed {@code int}. Changes
+ * made inside a batch ({@link Board#beginBatch()}), and whole-board updates
+ * such as loading a game, arrive instead as one coalesced call listing the
+ * cells that differ from before: a cell changed and changed back within the
+ * batch is not reported at all. No event allocates.
+ *
+ * Changed cells come as a two-{@code long} bitset in row-major order, the same
+ * layout as the board's fixed flags: bit i of 'lo' for cells 0-63, bit (i - 64)
+ * of 'hi' for cells 64-80. Listeners run on the thread that changed the board.
+ */
+public interface BoardListener {
+    /**
+     * Called after cells changed value or fixed state.
+     *
+     * @param lo Changed cells 0-63, one bit per cell.
+     * @param hi Changed cells 64-80, one bit per cell.
+     */
+    void cellsChanged(long lo, long hi);
+
+    /**
+     * Called after a single move outside any batch. By default, forwarded to
+     * {@link #cellsChanged(long, long)} with the one cell.
+     *
+     * @param change The move, packed by {@link CellChange#pack(int, int, int)}.
+     */
+    default void cellChanged(int change) {
+        int cell = CellChange.cell(change);
+        if (cell < 64) {
+            cellsChanged(1L << cell, 0);
+        } else {
+            cellsChanged(0, 1L << (cell - 64));
+        }
+    }
+}
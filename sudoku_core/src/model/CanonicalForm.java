@@ -0,0 +1,330 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of 9x9 grids under the Sudoku symmetries.
+ *
+ * Two grids are equivalent when one becomes the other by relabeling digits,
+ * permuting bands, stacks, rows within a band or columns within a stack, and
+ * transposing. Equivalent puzzles have the same solution count and difficulty,
+ * so they are duplicates for every practical purpose.
+ *
+ * The canonical form is the lexicographically smallest grid of the class,
+ * reading cells row by row with empty cells (0) first and digits relabeled in
+ * order of first appearance. It is found by branch and bound: the first row
+ * is built cell by cell over the orientations, rows and column orders, then
+ * each following row over the rows still allowed, and at every step only the
+ * transforms giving the smallest value so far are kept. Most of the 2 x 6^8
+ * transforms are thus pruned within the first row or two.
+ *
+ * Sparse grids tie on many transforms, so the search also skips transforms
+ * that are known to give the same grid as one it keeps: of two empty lines in
+ * a band, or two empty bands, only the first is tried (swapping them leaves the
+ * grid unchanged), and a grid equal to its transpose is read in one orientation
+ * only. The empty grid then keeps a single transform, and sparse grids stay
+ * within milliseconds, so any 9x9 grid is a valid input.
+ *
+ * {@link #key(int[][])} reduces the canonical form to a 64-bit hash, meant to be
+ * stored in a {@link LongHashSet} to deduplicate large numbers of puzzles.
+ */
+public final class CanonicalForm {
+    // The 1296 column orders preserving stacks: target column k reads source column ORDERS[o][k]
+    private static final int[][] COLUMN_ORDERS = columnOrders();
+
+    // State layout: transposed (1 bit) | column order (11 bits) | used rows (9 bits) | last row (4 bits)
+    private static final int ORDER_SHIFT = 1;
+    private static final int USED_SHIFT = 12;
+    private static final int LAST_SHIFT = 21;
+
+    private CanonicalForm() {
+    }
+
+    /**
+     * Returns the canonical form of a grid.
+     *
+     * @param grid A 9x9 grid, 0 for empty cells; left unchanged.
+     * @return The smallest equivalent grid, as a new array.
+     * @throws IllegalArgumentException If the grid is not 9x9 or holds a value outside 0-9.
+     */
+    public static int[][] canonicalize(int[][] grid) {
+        byte[] minimal = minimal(grid);
+        int[][] result = new int[9][9];
+        for (int i = 0; i < 81; i++) {
+            result[i / 9][i % 9] = minimal[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns a 64-bit hash of the canonical form: equivalent grids always get
+     * the same key, and different classes collide with probability about 2^-64
+     * per pair (around 3 in a million for ten million puzzles).
+     *
+     * @param grid A 9x9 grid, 0 for empty cells; left unchanged.
+     * @return The key of the grid's equivalence class.
+     * @throws IllegalArgumentException If the grid is not 9x9 or holds a value outside 0-9.
+     */
+    public static long key(int[][] grid) {
+        byte[] minimal = minimal(grid);
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int word = 0; word < 6; word++) {
+            long packed = 0;
+            for (int i = word * 16; i < Math.min(81, word * 16 + 16); i++) {
+                packed |= (long) minimal[i] << ((i & 15) << 2);
+            }
+            hash = mix(hash ^ packed);
+        }
+        return hash;
+    }
+
+    /**
+     * Finds the smallest equivalent grid by keeping, row after row, only the
+     * transforms that produce the smallest row.
+     */
+    static byte[] minimal(int[][] grid) {
+        if (grid.length != 9) throw new IllegalArgumentException("The grid must be 9x9.");
+        byte[][] cells = {new byte[81], new byte[81]}; // As given, transposed
+        for (int i = 0; i < 9; i++) {
+            if (grid[i].length != 9) throw new IllegalArgumentException("The grid must be 9x9.");
+            for (int j = 0; j < 9; j++) {
+                int value = grid[i][j];
+                if (value < 0 || value > 9) {
+                    throw new IllegalArgumentException("Invalid value " + value + " at row " + i + ", column " + j);
+                }
+                cells[0][i * 9 + j] = (byte) value;
+                cells[1][j * 9 + i] = (byte) value;
+            }
+        }
+
+        int[] empty = {emptyRows(cells[0]), emptyRows(cells[1])}; // Empty columns are the empty rows of the other orientation
+        int orientations = Arrays.equals(cells[0], cells[1]) ? 1 : 2;
+
+        // Every state carries its digit relabeling: the label of digit v in nibble v,
+        // and the next free label in nibble 0
+        byte[] result = new byte[81];
+        Frontier states = firstRow(cells, empty, orientations, result);
+        Frontier next = new Frontier();
+        byte[] row = new byte[9];
+        for (int r = 1; r < 9; r++) {
+            next.size = 0;
+            boolean found = false; // Whether result row r holds a candidate yet
+            for (int s = 0; s < states.size; s++) {
+                long state = states.states[s];
+                byte[] source = cells[(int) (state & 1)];
+                int[] order = COLUMN_ORDERS[(int) (state >>> ORDER_SHIFT) & 0x7FF];
+                int used = (int) (state >>> USED_SHIFT) & 0x1FF;
+                int rows = r % 3 == 0 ? freeBandRows(used) : 7 << ((int) (state >>> LAST_SHIFT & 0xF) / 3 * 3) & ~used;
+                rows = withoutTwins(rows, empty[(int) (state & 1)]);
+
+                for (; rows != 0; rows &= rows - 1) {
+                    int src = Integer.numberOfTrailingZeros(rows);
+                    long map = states.labels[s];
+                    int cmp = found ? 0 : -1;
+                    for (int k = 0; k < 9 && cmp <= 0; k++) {
+                        int value = source[src * 9 + order[k]];
+                        int label = 0;
+                        if (value != 0) {
+                            label = (int) (map >>> (value << 2)) & 0xF;
+                            if (label == 0) {
+                                label = (int) (map & 0xF);
+                                map = map + 1 | (long) label << (value << 2);
+                            }
+                        }
+                        row[k] = (byte) label;
+                        if (cmp == 0 && label != result[r * 9 + k]) {
+                            cmp = label < result[r * 9 + k] ? -1 : 1;
+                        }
+                    }
+                    if (cmp > 0) continue;
+                    if (cmp < 0) {
+                        System.arraycopy(row, 0, result, r * 9, 9);
+                        found = true;
+                        next.size = 0; // Everything kept so far gave a larger row
+                    }
+                    next.add(state & ((1L << USED_SHIFT) - 1)
+                            | (long) (used | 1 << src) << USED_SHIFT
+                            | (long) src << LAST_SHIFT, map);
+                }
+            }
+            Frontier swap = states;
+            states = next;
+            next = swap;
+        }
+        return result;
+    }
+
+    /**
+     * Finds the smallest first row cell by cell. Its transforms are the
+     * 18 choices of orientation and row, extended one column at a time with
+     * the columns the stack structure allows, keeping only those giving the
+     * smallest value so far; the survivors become row-level states.
+     */
+    private static Frontier firstRow(byte[][] cells, int[] empty, int orientations, byte[] result) {
+        // State layout here: transposed (1 bit) | row (4 bits) | used columns (9 bits) | columns (4 bits each)
+        Frontier states = new Frontier();
+        Frontier next = new Frontier();
+        for (int t = 0; t < orientations; t++) {
+            for (int rows = withoutTwins(0x1FF, empty[t]); rows != 0; rows &= rows - 1) {
+                states.add(t | Integer.numberOfTrailingZeros(rows) << 1, 1);
+            }
+        }
+        for (int k = 0; k < 9; k++) {
+            next.size = 0;
+            int best = Integer.MAX_VALUE;
+            for (int s = 0; s < states.size; s++) {
+                long state = states.states[s];
+                byte[] source = cells[(int) (state & 1)];
+                int src = (int) (state >>> 1) & 0xF;
+                int used = (int) (state >>> 5) & 0x1FF;
+                int columns = k % 3 == 0 ? freeBandRows(used) : 7 << ((int) (state >>> (14 + 4 * (k - 1)) & 0xF) / 3 * 3) & ~used;
+                columns = withoutTwins(columns, empty[1 - (int) (state & 1)]);
+
+                for (; columns != 0; columns &= columns - 1) {
+                    int col = Integer.numberOfTrailingZeros(columns);
+                    long map = states.labels[s];
+                    int value = source[src * 9 + col];
+                    int label = 0;
+                    if (value != 0) {
+                        label = (int) (map >>> (value << 2)) & 0xF;
+                        if (label == 0) {
+                            label = (int) (map & 0xF);
+                            map = map + 1 | (long) label << (value << 2);
+                        }
+                    }
+                    if (label > best) continue;
+                    if (label < best) {
+                        best = label;
+                        next.size = 0;
+                    }
+                    next.add(state | 1L << (5 + col) | (long) col << (14 + 4 * k), map);
+                }
+            }
+            result[k] = (byte) best;
+            Frontier swap = states;
+            states = next;
+            next = swap;
+        }
+
+        next.size = 0;
+        for (int s = 0; s < states.size; s++) {
+            long state = states.states[s];
+            int src = (int) (state >>> 1) & 0xF;
+            int[] columns = new int[9];
+            for (int k = 0; k < 9; k++) {
+                columns[k] = (int) (state >>> (14 + 4 * k)) & 0xF;
+            }
+            int order = permutationIndex(columns[0] / 3, columns[3] / 3);
+            for (int stack = 0; stack < 3; stack++) {
+                order = order * 6 + permutationIndex(columns[3 * stack] % 3, columns[3 * stack + 1] % 3);
+            }
+            next.add((state & 1) | (long) order << ORDER_SHIFT | (long) (1 << src) << USED_SHIFT | (long) src << LAST_SHIFT,
+                    states.labels[s]);
+        }
+        return next;
+    }
+
+    /**
+     * Returns the index, in the order used by {@link #columnOrders()}, of the
+     * permutation of {0, 1, 2} starting with a, b.
+     */
+    private static int permutationIndex(int a, int b) {
+        return 2 * a + (b > 3 - a - b ? 1 : 0);
+    }
+
+    /**
+     * Search states with their digit relabelings, in growable parallel arrays.
+     */
+    private static final class Frontier {
+        long[] states = new long[64];
+        long[] labels = new long[64];
+        int size;
+
+        void add(long state, long map) {
+            if (size == states.length) {
+                states = Arrays.copyOf(states, size * 2);
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            states[size] = state;
+            labels[size] = map;
+            size++;
+        }
+    }
+
+    /**
+     * Returns the rows of the bands that no row has been taken from yet;
+     * used for columns and stacks as well.
+     */
+    private static int freeBandRows(int used) {
+        int rows = 0;
+        for (int band = 0; band < 3; band++) {
+            if ((used & 7 << band * 3) == 0) rows |= 7 << band * 3;
+        }
+        return rows;
+    }
+
+    /**
+     * Drops the lines whose transforms repeat those of a line kept: of the
+     * empty lines of a band only the first, and of the bands that are entirely
+     * empty and unused only the first. Used for columns and stacks as well.
+     *
+     * @param lines The lines allowed next, 9 bits.
+     * @param empty The lines holding no digit, 9 bits.
+     */
+    private static int withoutTwins(int lines, int empty) {
+        int kept = 0;
+        boolean emptyBandKept = false;
+        for (int band = 0; band < 3; band++) {
+            int mask = 7 << band * 3;
+            int candidates = lines & mask;
+            if (candidates == mask && (empty & mask) == mask) {
+                if (emptyBandKept) continue;
+                emptyBandKept = true;
+            }
+            int blank = candidates & empty;
+            kept |= candidates & ~empty | blank & -blank;
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the rows holding no digit, one bit per row.
+     */
+    private static int emptyRows(byte[] cells) {
+        int empty = 0;
+        for (int r = 0; r < 9; r++) {
+            boolean blank = true;
+            for (int c = 0; c < 9 && blank; c++) {
+                blank = cells[r * 9 + c] == 0;
+            }
+            if (blank) empty |= 1 << r;
+        }
+        return empty;
+    }
+
+    private static int[][] columnOrders() {
+        int[][] permutations = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int[][] orders = new int[1296][9];
+        int o = 0;
+        for (int[] stacks : permutations) {
+            for (int[] first : permutations) {
+                for (int[] second : permutations) {
+                    for (int[] third : permutations) {
+                        int[][] within = {first, second, third};
+                        for (int k = 0; k < 9; k++) {
+                            orders[o][k] = stacks[k / 3] * 3 + within[k / 3][k % 3];
+                        }
+                        o++;
+                    }
+                }
+            }
+        }
+        return orders;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
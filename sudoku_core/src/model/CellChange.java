@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * A change of one cell packed into an {@code int}: the row-major cell index
+ * in bits 0-7, the old value in bits 8-11 and the new value in bits 12-15.
+ *
+ * Used for the events of {@link BoardListener} and the entries of
+ * {@link MoveJournal}, so neither allocates an object per move.
+ */
+public final class CellChange {
+    private CellChange() {
+    }
+
+    public static int pack(int cell, int oldValue, int newValue) {
+        return cell | oldValue << 8 | newValue << 12;
+    }
+
+    /** Row-major index of the changed cell, 0-80. */
+    public static int cell(int change) {
+        return change & 0xFF;
+    }
+
+    public static int oldValue(int change) {
+        return (change >>> 8) & 0xF;
+    }
+
+    public static int newValue(int change) {
+        return (change >>> 12) & 0xF;
+    }
+}
@@ -0,0 +1,167 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Incremental constraint engine for a 9x9 Sudoku grid.
+ *
+ * Keeps one 9-bit mask per row, column and 3x3 box, where bit (d - 1) is set
+ * when digit d is present in that unit. Placing or clearing a digit updates the
+ * three masks in constant time, so validity checks and candidate listing become
+ * simple bit operations instead of 27-cell scans.
+ *
+ * A per-unit digit count is kept alongside the masks so that a grid holding
+ * duplicates (e.g. an inconsistent saved game) is still tracked correctly:
+ * a bit is only cleared once the last copy of the digit leaves the unit.
+ */
+public class ConstraintMasks {
+    /** Mask with all nine digit bits set. */
+    public static final int ALL_DIGITS = 0x1FF;
+
+    private final int[] rowMasks = new int[9];
+    private final int[] colMasks = new int[9];
+    private final int[] boxMasks = new int[9];
+
+    // Occurrences of each digit per unit, indexed [unit * 9 + (digit - 1)]
+    private final byte[] rowCounts = new byte[81];
+    private final byte[] colCounts = new byte[81];
+    private final byte[] boxCounts = new byte[81];
+
+    private int duplicates; // Extra copies of digits summed over all 27 units
+
+    /**
+     * Builds an engine already loaded with every non-zero value of the grid.
+     *
+     * @param grid A 9x9 integer array, 0 for empty cells.
+     * @return The populated engine.
+     */
+    public static ConstraintMasks of(int[][] grid) {
+        ConstraintMasks masks = new ConstraintMasks();
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                if (grid[i][j] != 0) {
+                    masks.place(i, j, grid[i][j]);
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Returns the index (0-8) of the 3x3 box containing the cell.
+     */
+    public static int boxIndex(int row, int col) {
+        return (row / 3) * 3 + col / 3;
+    }
+
+    /**
+     * Returns the mask bit representing a digit (1-9).
+     */
+    public static int bit(int digit) {
+        return 1 << (digit - 1);
+    }
+
+    /**
+     * Records a digit placed at the given cell.
+     */
+    public void place(int row, int col, int digit) {
+        int box = boxIndex(row, col);
+        int d = digit - 1;
+        int bit = 1 << d;
+        if (++rowCounts[row * 9 + d] > 1) duplicates++;
+        if (++colCounts[col * 9 + d] > 1) duplicates++;
+        if (++boxCounts[box * 9 + d] > 1) duplicates++;
+        rowMasks[row] |= bit;
+        colMasks[col] |= bit;
+        boxMasks[box] |= bit;
+    }
+
+    /**
+     * Records a digit removed from the given cell.
+     */
+    public void remove(int row, int col, int digit) {
+        int box = boxIndex(row, col);
+        int d = digit - 1;
+        int bit = 1 << d;
+        if (rowCounts[row * 9 + d]-- > 1) duplicates--; else rowMasks[row] &= ~bit;
+        if (colCounts[col * 9 + d]-- > 1) duplicates--; else colMasks[col] &= ~bit;
+        if (boxCounts[box * 9 + d]-- > 1) duplicates--; else boxMasks[box] &= ~bit;
+    }
+
+    /**
+     * Returns the mask of digits already used by the row, column and box of the cell.
+     */
+    public int used(int row, int col) {
+        return rowMasks[row] | colMasks[col] | boxMasks[boxIndex(row, col)];
+    }
+
+    /**
+     * Returns the mask of digits that could still be placed at the cell.
+     * The cell's own value, if any, is counted as used.
+     */
+    public int candidates(int row, int col) {
+        return ~used(row, col) & ALL_DIGITS;
+    }
+
+    /**
+     * Checks whether a digit is absent from the row, column and box of the cell.
+     */
+    public boolean canPlace(int row, int col, int digit) {
+        return (used(row, col) & (1 << (digit - 1))) == 0;
+    }
+
+    /**
+     * Checks whether a digit occurs in the row, column or box of the cell more
+     * often than the given number of times. Passing 1 when the cell itself
+     * holds the digit answers "does any other cell in its units hold it?".
+     *
+     * @param row   Row index of the cell.
+     * @param col   Column index of the cell.
+     * @param digit The digit (1-9).
+     * @param own   How many of the occurrences belong to the cell itself (0 or 1).
+     * @return true if another cell in one of the three units holds the digit.
+     */
+    public boolean conflicts(int row, int col, int digit, int own) {
+        int d = digit - 1;
+        return rowCounts[row * 9 + d] > own
+                || colCounts[col * 9 + d] > own
+                || boxCounts[boxIndex(row, col) * 9 + d] > own;
+    }
+
+    /**
+     * Returns how many extra copies of digits the grid holds: a digit appearing
+     * k times in a row, column or box adds k - 1 for that unit. Zero means no
+     * placed digit breaks the Sudoku rules.
+     */
+    public int duplicateCount() {
+        return duplicates;
+    }
+
+    /**
+     * Returns an independent copy of this engine.
+     */
+    public ConstraintMasks copy() {
+        ConstraintMasks copy = new ConstraintMasks();
+        System.arraycopy(rowMasks, 0, copy.rowMasks, 0, 9);
+        System.arraycopy(colMasks, 0, copy.colMasks, 0, 9);
+        System.arraycopy(boxMasks, 0, copy.boxMasks, 0, 9);
+        System.arraycopy(rowCounts, 0, copy.rowCounts, 0, 81);
+        System.arraycopy(colCounts, 0, copy.colCounts, 0, 81);
+        System.arraycopy(boxCounts, 0, copy.boxCounts, 0, 81);
+        copy.duplicates = duplicates;
+        return copy;
+    }
+
+    /**
+     * Forgets every placed digit.
+     */
+    public void clear() {
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        Arrays.fill(rowCounts, (byte) 0);
+        Arrays.fill(colCounts, (byte) 0);
+        Arrays.fill(boxCounts, (byte) 0);
+        duplicates = 0;
+    }
+}
@@ -0,0 +1,226 @@
+package model;
+
+/**
+ * Exact-cover Sudoku solver using Knuth's Algorithm X with Dancing Links.
+ *
+ * The 324 constraints (cell, row-digit, column-digit, box-digit) and the 729
+ * candidate placements are linked once, in the constructor, into flat
+ * {@code int} arrays. Each call covers the given cells, searches, and then
+ * uncovers everything again, so the node arrays are reused between calls and
+ * no allocation happens per solve.
+ *
+ * Instances are not thread-safe; use one per thread.
+ */
+public class DancingLinksSolver implements SolutionCounter {
+    private static final int COLUMNS = 324;
+    private static final int OPTIONS = 729;
+    private static final int ROOT = 0;
+    private static final int FIRST_NODE = COLUMNS + 1; // Headers occupy 1..324, the root is 0
+    private static final int NODES = FIRST_NODE + OPTIONS * 4;
+
+    // Toroidal doubly linked lists: left, right, up, down and owning column header of every node
+    private final int[] left = new int[NODES];
+    private final int[] right = new int[NODES];
+    private final int[] up = new int[NODES];
+    private final int[] down = new int[NODES];
+    private final int[] column = new int[NODES];
+    private final int[] size = new int[COLUMNS + 1]; // Number of nodes currently in each column
+
+    private final int[] givens = new int[81];    // First node of each covered given, in cover order
+    private final int[] chosen = new int[81];    // A node of each option chosen by the search
+    private final int[] solution = new int[81];  // First solution found, as digits in row-major order
+
+    private int depth;
+    private int count;
+    private int limit;
+    private long nodes; // Options tried by the last search
+
+    public DancingLinksSolver() {
+        for (int c = 0; c <= COLUMNS; c++) {
+            left[c] = c - 1;
+            right[c] = c + 1;
+            up[c] = c;
+            down[c] = c;
+        }
+        left[ROOT] = COLUMNS;
+        right[COLUMNS] = ROOT;
+
+        for (int option = 0; option < OPTIONS; option++) {
+            int row = option / 81;
+            int col = (option / 9) % 9;
+            int d = option % 9;
+            int box = ConstraintMasks.boxIndex(row, col);
+            int first = firstNode(option);
+            link(first, 1 + row * 9 + col);            // Cell (row, col) holds a digit
+            link(first + 1, 1 + 81 + row * 9 + d);     // Row holds digit d
+            link(first + 2, 1 + 162 + col * 9 + d);    // Column holds digit d
+            link(first + 3, 1 + 243 + box * 9 + d);    // Box holds digit d
+            for (int k = 0; k < 4; k++) {
+                left[first + k] = first + (k + 3) % 4;
+                right[first + k] = first + (k + 1) % 4;
+            }
+        }
+    }
+
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        return run(board, limit);
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Solves the board in place with its first solution.
+     *
+     * @param board A 9x9 integer array, 0 for empty cells.
+     * @return true if a solution was found and written to 'board', false otherwise.
+     */
+    public boolean solve(int[][] board) {
+        if (run(board, 1) == 0) return false;
+        for (int i = 0; i < 81; i++) {
+            board[i / 9][i % 9] = solution[i];
+        }
+        return true;
+    }
+
+    /**
+     * Counts the solutions like {@link #countSolutions(int[][], int)} and, in the
+     * same search, writes the first solution found into the board.
+     *
+     * @param board A 9x9 integer array, 0 for empty cells. Solved in place if it has a solution.
+     * @param limit The maximum number of solutions to count.
+     * @return The number of solutions found, never more than 'limit'.
+     */
+    public int countAndSolve(int[][] board, int limit) {
+        int found = run(board, limit);
+        if (found > 0) {
+            for (int i = 0; i < 81; i++) {
+                board[i / 9][i % 9] = solution[i];
+            }
+        }
+        return found;
+    }
+
+    private int run(int[][] board, int limit) {
+        this.limit = limit;
+        this.count = 0;
+        this.depth = 0;
+        this.nodes = 0;
+
+        int covered = 0;
+        boolean consistent = true;
+        for (int i = 0; i < 9 && consistent; i++) {
+            for (int j = 0; j < 9; j++) {
+                int value = board[i][j];
+                if (value == 0) continue;
+                int first = firstNode(i * 81 + j * 9 + value - 1);
+                if (!allColumnsOpen(first)) { // Two givens clash: no solution at all
+                    consistent = false;
+                    break;
+                }
+                select(first);
+                givens[covered++] = first;
+                solution[i * 9 + j] = value;
+            }
+        }
+
+        if (consistent && limit > 0) {
+            search();
+        }
+
+        // Restore the full matrix for the next call
+        while (covered > 0) {
+            deselect(givens[--covered]);
+        }
+        return count;
+    }
+
+    private void search() {
+        if (right[ROOT] == ROOT) {
+            if (count == 0) {
+                for (int k = 0; k < depth; k++) {
+                    int option = (chosen[k] - FIRST_NODE) / 4;
+                    solution[option / 9] = option % 9 + 1;
+                }
+            }
+            count++;
+            return;
+        }
+
+        // Most-constrained column first keeps the search tree small
+        int c = right[ROOT];
+        for (int j = right[c]; j != ROOT; j = right[j]) {
+            if (size[j] < size[c]) c = j;
+        }
+        if (size[c] == 0) return;
+
+        cover(c);
+        for (int r = down[c]; r != c && count < limit; r = down[r]) {
+            chosen[depth++] = r;
+            nodes++;
+            for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+            search();
+            for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            depth--;
+        }
+        uncover(c);
+    }
+
+    private void select(int first) {
+        cover(column[first]);
+        for (int j = right[first]; j != first; j = right[j]) cover(column[j]);
+    }
+
+    private void deselect(int first) {
+        for (int j = left[first]; j != first; j = left[j]) uncover(column[j]);
+        uncover(column[first]);
+    }
+
+    private boolean allColumnsOpen(int first) {
+        for (int k = 0; k < 4; k++) {
+            int c = column[first + k];
+            if (right[left[c]] != c) return false;
+        }
+        return true;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    private void link(int node, int header) {
+        column[node] = header;
+        up[node] = up[header];
+        down[node] = header;
+        down[up[header]] = node;
+        up[header] = node;
+        size[header]++;
+    }
+
+    private static int firstNode(int option) {
+        return FIRST_NODE + option * 4;
+    }
+}
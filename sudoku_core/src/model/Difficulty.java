@@ -0,0 +1,46 @@
+package model;
+
+public enum Difficulty {
+
+	EASY(40, 0, 10),    // 40 casas vazias (41 números preenchidos), só naked singles
+    MEDIUM(50, 11, 15), // 50 casas vazias (31 números preenchidos), até hidden singles
+    HARD(60, 16, Integer.MAX_VALUE); // 60 casas vazias (21 números preenchidos), candidatos bloqueados, pares, X-wing ou além
+
+    private final int holes;
+    private final int minRating;
+    private final int maxRating;
+
+    Difficulty(int holes, int minRating, int maxRating) {
+        this.holes = holes;
+        this.minRating = minRating;
+        this.maxRating = maxRating;
+    }
+
+    public int getPreenchidos() {
+        return 81 - holes;
+   }
+
+    /**
+     * Number of cells the generator tries to empty for this level.
+     */
+    public int getHoles() {
+        return holes;
+    }
+
+    /**
+     * Checks whether a {@link DifficultyGrader} rating falls in this level's band.
+     */
+    public boolean accepts(int rating) {
+        return rating >= minRating && rating <= maxRating;
+    }
+
+    /**
+     * How far a rating is from this level's band, 0 when inside it.
+     */
+    public int distance(int rating) {
+        if (rating < minRating) return minRating - rating;
+        if (rating > maxRating) return rating - maxRating;
+        return 0;
+    }
+	
+}
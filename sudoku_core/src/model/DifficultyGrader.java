@@ -0,0 +1,302 @@
+package model;
+
+/**
+ * Rates a puzzle by solving it the way a person would.
+ *
+ * The grader keeps a 9-bit candidate mask per cell and repeatedly applies the
+ * easiest {@link Technique} that makes progress, restarting from the singles
+ * after every step. The puzzle's rating is the rating of the hardest technique
+ * it needed; a puzzle these techniques cannot finish gets {@link #UNSOLVED_RATING}.
+ *
+ * Buffers are allocated once per grader, so instances are cheap to reuse but
+ * not thread-safe.
+ */
+public class DifficultyGrader {
+    /** Rating of puzzles that need more than the known techniques. */
+    public static final int UNSOLVED_RATING = 50;
+
+    // UNITS[u] lists the cells of unit u: rows 0-8, columns 9-17, boxes 18-26
+    private static final int[][] UNITS = SudokuSize.SIZE_9.units();
+    // PEERS[c] lists the 20 cells sharing a row, column or box with cell c
+    private static final int[][] PEERS = SudokuSize.SIZE_9.peers();
+
+    private final int[] values = new int[81];
+    private final int[] candidates = new int[81];
+    private final int[] positions = new int[9]; // X-wing scratch: where a digit fits in each line
+    private int empty;
+    private int effort;
+    private Technique hardest;
+
+    /**
+     * Result of grading one puzzle.
+     */
+    public static final class Grade {
+        private final int rating;
+        private final int effort;
+        private final Technique hardest;
+        private final boolean solved;
+
+        Grade(int rating, int effort, Technique hardest, boolean solved) {
+            this.rating = rating;
+            this.effort = effort;
+            this.hardest = hardest;
+            this.solved = solved;
+        }
+
+        /** Rating of the hardest technique needed, or {@link #UNSOLVED_RATING}. */
+        public int getRating() {
+            return rating;
+        }
+
+        /** Sum of the ratings of every step taken; separates puzzles of equal rating. */
+        public int getEffort() {
+            return effort;
+        }
+
+        /** Hardest technique applied, null if the puzzle needed none. */
+        public Technique getHardest() {
+            return hardest;
+        }
+
+        /** Whether the known techniques were enough to finish the puzzle. */
+        public boolean isSolved() {
+            return solved;
+        }
+    }
+
+    /**
+     * Grades a puzzle. The board is left unchanged.
+     *
+     * @param board A 9x9 integer array, 0 for empty cells.
+     * @return The grade of the puzzle.
+     */
+    public Grade grade(int[][] board) {
+        load(board);
+        boolean consistent = true;
+        while (empty > 0 && consistent) {
+            Technique step = step();
+            if (step == null) break; // Stuck: the puzzle needs a harder technique
+            effort += step.getRating();
+            if (hardest == null || step.ordinal() > hardest.ordinal()) hardest = step;
+            consistent = isConsistent();
+        }
+        boolean solved = empty == 0;
+        int rating = solved ? (hardest == null ? 0 : hardest.getRating()) : UNSOLVED_RATING;
+        return new Grade(rating, effort, hardest, solved);
+    }
+
+    private void load(int[][] board) {
+        empty = 0;
+        effort = 0;
+        hardest = null;
+        for (int c = 0; c < 81; c++) {
+            values[c] = 0;
+            candidates[c] = ConstraintMasks.ALL_DIGITS;
+        }
+        for (int c = 0; c < 81; c++) {
+            int value = board[c / 9][c % 9];
+            if (value != 0) {
+                place(c, value);
+            } else {
+                empty++;
+            }
+        }
+    }
+
+    /**
+     * Applies the easiest technique that makes progress.
+     *
+     * @return The technique applied, or null if none applies.
+     */
+    private Technique step() {
+        if (nakedSingle()) return Technique.NAKED_SINGLE;
+        if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+        if (pointing()) return Technique.POINTING;
+        if (boxLine()) return Technique.BOX_LINE;
+        if (nakedPair()) return Technique.NAKED_PAIR;
+        if (xWing()) return Technique.X_WING;
+        return null;
+    }
+
+    private boolean nakedSingle() {
+        for (int c = 0; c < 81; c++) {
+            if (values[c] == 0 && Integer.bitCount(candidates[c]) == 1) {
+                place(c, Integer.numberOfTrailingZeros(candidates[c]) + 1);
+                empty--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle() {
+        for (int[] unit : UNITS) {
+            // Digits seen once and digits seen more than once among the unit's candidates
+            int once = 0;
+            int more = 0;
+            for (int c : unit) {
+                more |= once & candidates[c];
+                once |= candidates[c];
+            }
+            int single = once & ~more;
+            if (single == 0) continue;
+            int bit = single & -single;
+            for (int c : unit) {
+                if ((candidates[c] & bit) != 0) {
+                    place(c, Integer.numberOfTrailingZeros(bit) + 1);
+                    empty--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Locked candidates, pointing: inside a box, a digit confined to one row or
+     * column cannot appear elsewhere in that row or column.
+     */
+    private boolean pointing() {
+        for (int box = 0; box < 9; box++) {
+            int[] cells = UNITS[18 + box];
+            for (int d = 0; d < 9; d++) {
+                int bit = 1 << d;
+                int rows = 0;
+                int cols = 0;
+                for (int c : cells) {
+                    if ((candidates[c] & bit) != 0) {
+                        rows |= 1 << (c / 9);
+                        cols |= 1 << (c % 9);
+                    }
+                }
+                if (Integer.bitCount(rows) == 1
+                        && eliminateOutside(UNITS[Integer.numberOfTrailingZeros(rows)], cells, bit)) return true;
+                if (Integer.bitCount(cols) == 1
+                        && eliminateOutside(UNITS[9 + Integer.numberOfTrailingZeros(cols)], cells, bit)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Locked candidates, box-line reduction: inside a row or column, a digit
+     * confined to one box cannot appear elsewhere in that box.
+     */
+    private boolean boxLine() {
+        for (int line = 0; line < 18; line++) {
+            int[] cells = UNITS[line];
+            for (int d = 0; d < 9; d++) {
+                int bit = 1 << d;
+                int boxes = 0;
+                for (int c : cells) {
+                    if ((candidates[c] & bit) != 0) boxes |= 1 << ConstraintMasks.boxIndex(c / 9, c % 9);
+                }
+                if (Integer.bitCount(boxes) == 1
+                        && eliminateOutside(UNITS[18 + Integer.numberOfTrailingZeros(boxes)], cells, bit)) return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedPair() {
+        for (int[] unit : UNITS) {
+            for (int i = 0; i < 9; i++) {
+                int pair = candidates[unit[i]];
+                if (Integer.bitCount(pair) != 2) continue;
+                for (int j = i + 1; j < 9; j++) {
+                    if (candidates[unit[j]] != pair) continue;
+                    boolean changed = false;
+                    for (int k = 0; k < 9; k++) {
+                        int c = unit[k];
+                        if (k != i && k != j && (candidates[c] & pair) != 0) {
+                            candidates[c] &= ~pair;
+                            changed = true;
+                        }
+                    }
+                    if (changed) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If a digit fits in exactly the same two columns of two rows, it cannot
+     * appear elsewhere in those columns; likewise with rows and columns swapped.
+     */
+    private boolean xWing() {
+        for (int base = 0; base <= 9; base += 9) { // Rows as base lines, then columns
+            int cover = 9 - base;                   // The crossing lines
+            for (int d = 0; d < 9; d++) {
+                int bit = 1 << d;
+                for (int line = 0; line < 9; line++) {
+                    int[] cells = UNITS[base + line];
+                    positions[line] = 0;
+                    for (int k = 0; k < 9; k++) {
+                        if ((candidates[cells[k]] & bit) != 0) positions[line] |= 1 << k;
+                    }
+                }
+                for (int a = 0; a < 9; a++) {
+                    if (Integer.bitCount(positions[a]) != 2) continue;
+                    for (int b = a + 1; b < 9; b++) {
+                        if (positions[b] != positions[a]) continue;
+                        boolean changed = false;
+                        for (int m = positions[a]; m != 0; m &= m - 1) {
+                            int[] crossing = UNITS[cover + Integer.numberOfTrailingZeros(m)];
+                            for (int k = 0; k < 9; k++) {
+                                int c = crossing[k];
+                                if (k != a && k != b && (candidates[c] & bit) != 0) {
+                                    candidates[c] &= ~bit;
+                                    changed = true;
+                                }
+                            }
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a candidate from the cells of 'unit' that are not in 'keep'.
+     *
+     * @return true if at least one candidate was removed.
+     */
+    private boolean eliminateOutside(int[] unit, int[] keep, int bit) {
+        boolean changed = false;
+        for (int c : unit) {
+            if ((candidates[c] & bit) == 0 || contains(keep, c)) continue;
+            candidates[c] &= ~bit;
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) return true;
+        }
+        return false;
+    }
+
+    private void place(int cell, int digit) {
+        int bit = 1 << (digit - 1);
+        values[cell] = digit;
+        candidates[cell] = 0;
+        for (int p : PEERS[cell]) {
+            candidates[p] &= ~bit;
+        }
+    }
+
+    /**
+     * Checks that every empty cell still has a candidate.
+     */
+    private boolean isConsistent() {
+        for (int c = 0; c < 81; c++) {
+            if (values[c] == 0 && candidates[c] == 0) return false;
+        }
+        return true;
+    }
+}
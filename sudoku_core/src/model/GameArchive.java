@@ -0,0 +1,154 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file of packed games, read through memory mapping.
+ *
+ * The file is a 16-byte header followed by fixed-size {@link GameCodec}
+ * records, so game i lives at a known offset and can be read without scanning.
+ * Reads go through read-only mappings of up to {@value #SEGMENT_RECORDS}
+ * records each, which keeps files larger than 2 GB addressable.
+ *
+ * Appending and reading from several threads at once is not supported.
+ */
+public class GameArchive implements Closeable {
+    private static final int HEADER_SIZE = 16;
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'A'};
+    private static final int VERSION = 1;
+    private static final int SEGMENT_RECORDS = 1 << 22; // ~218 MB of records per mapping
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(GameCodec.RECORD_SIZE);
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long size;
+
+    private GameArchive(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Opens an archive, creating it if the file does not exist.
+     * A trailing partial record, left by an interrupted append, is ignored and overwritten;
+     * a partial header, left by an interrupted creation, is written again.
+     *
+     * @param path The archive file.
+     * @return The open archive.
+     * @throws IOException If the file cannot be opened or is not an archive.
+     */
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            ByteBuffer expected = ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).putInt(VERSION); // Rest is reserved, zero
+            int read = 0;
+            while (read < HEADER_SIZE) {
+                int n = channel.read(header, read);
+                if (n < 0) break;
+                read += n;
+            }
+            int known = Math.min(read, MAGIC.length);
+            for (int i = 0; i < known; i++) {
+                if (header.get(i) != MAGIC[i]) throw new IOException("Not a game archive: " + path);
+            }
+            if (read >= MAGIC.length + 4 && header.getInt(MAGIC.length) != VERSION) {
+                throw new IOException("Unsupported archive version.");
+            }
+            if (read < HEADER_SIZE) {
+                // New file, or a header cut short by a crash while creating it: (re)write it whole
+                expected.clear();
+                long position = 0;
+                while (expected.hasRemaining()) {
+                    position += channel.write(expected, position);
+                }
+            }
+            return new GameArchive(channel, (channel.size() - HEADER_SIZE) / GameCodec.RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of games in the archive.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Appends a game at the end of the archive.
+     *
+     * @return The index of the appended game.
+     */
+    public long append(Board board) throws IOException {
+        GameCodec.write(board, record, 0);
+        record.clear();
+        long position = offsetOf(size);
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        record.clear();
+        return size++;
+    }
+
+    /**
+     * Reads the game at the given index into a board.
+     *
+     * @throws IOException If the index is out of range or the record is corrupted.
+     */
+    public void read(long index, Board board) throws IOException {
+        if (index < 0 || index >= size) {
+            throw new IOException("Game index " + index + " out of range (size " + size + ").");
+        }
+        int segment = (int) (index / SEGMENT_RECORDS);
+        int slot = (int) (index % SEGMENT_RECORDS);
+        GameCodec.read(segment(segment, slot), slot * GameCodec.RECORD_SIZE, board);
+    }
+
+    /**
+     * Forces appended games to the storage device.
+     */
+    public void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    /**
+     * Returns a mapping of the segment covering at least records [0, slot].
+     * Segments are mapped lazily and remapped when appends grew them past the last mapping.
+     */
+    private MappedByteBuffer segment(int segment, int slot) throws IOException {
+        if (segment >= segments.length) {
+            MappedByteBuffer[] grown = new MappedByteBuffer[segment + 1];
+            System.arraycopy(segments, 0, grown, 0, segments.length);
+            segments = grown;
+        }
+        MappedByteBuffer mapped = segments[segment];
+        int needed = (slot + 1) * GameCodec.RECORD_SIZE;
+        if (mapped == null || mapped.capacity() < needed) {
+            long first = (long) segment * SEGMENT_RECORDS;
+            long records = Math.min(SEGMENT_RECORDS, size - first);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, offsetOf(first), records * GameCodec.RECORD_SIZE);
+            segments[segment] = mapped;
+        }
+        return mapped;
+    }
+
+    private static long offsetOf(long index) {
+        return HEADER_SIZE + index * GameCodec.RECORD_SIZE;
+    }
+}
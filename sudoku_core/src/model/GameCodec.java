@@ -0,0 +1,129 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Packed binary encoding of a {@link Board}.
+ *
+ * A game record is {@value #RECORD_SIZE} bytes:
+ * <ul>
+ *   <li>41 bytes of cell values, 4 bits per cell in row-major order
+ *       (cell 2k in the low nibble of byte k, cell 2k+1 in the high nibble);</li>
+ *   <li>11 bytes holding the 81-bit fixed mask, bit i of the mask being
+ *       bit (i % 8) of byte (i / 8).</li>
+ * </ul>
+ * The 4 bits after cell 80 and the 7 bits after its fixed flag are zero.
+ * A single-game save file is the record preceded by a 4-byte magic header,
+ * which lets {@link Board#loadGame(String)} tell it apart from legacy text saves.
+ * When the board has a {@link MoveJournal}, the journal follows the record;
+ * readers that do not know about it simply ignore the trailing bytes.
+ */
+public final class GameCodec {
+    public static final int RECORD_SIZE = 52;
+
+    private static final int VALUE_BYTES = 41;
+    private static final int MASK_BYTES = 11;
+    private static final long FIXED_HI_MASK = (1L << (81 - 64)) - 1; // Cells 64-80
+    private static final byte[] FILE_MAGIC = {'S', 'D', 'K', 1};
+
+    private GameCodec() {
+    }
+
+    /**
+     * Writes the record of a board at the buffer's absolute offset.
+     */
+    public static void write(Board board, ByteBuffer out, int offset) {
+        for (int k = 0; k < VALUE_BYTES; k++) {
+            int low = board.valueAt(2 * k);
+            int high = 2 * k + 1 < 81 ? board.valueAt(2 * k + 1) : 0;
+            out.put(offset + k, (byte) (low | high << 4));
+        }
+        for (int k = 0; k < MASK_BYTES; k++) {
+            int bits = 0;
+            for (int b = 0; b < 8 && k * 8 + b < 81; b++) {
+                if (board.isFixed(k * 8 + b)) bits |= 1 << b;
+            }
+            out.put(offset + VALUE_BYTES + k, (byte) bits);
+        }
+    }
+
+    /**
+     * Reads the record at the buffer's absolute offset into a board.
+     *
+     * @throws IOException If the record holds an invalid value, an empty fixed cell
+     *                     or non-zero padding past cell 80.
+     */
+    public static void read(ByteBuffer in, int offset, Board board) throws IOException {
+        byte[] values = new byte[81];
+        for (int k = 0; k < VALUE_BYTES; k++) {
+            int packed = in.get(offset + k);
+            values[2 * k] = (byte) (packed & 0xF);
+            if (2 * k + 1 < 81) {
+                values[2 * k + 1] = (byte) ((packed >>> 4) & 0xF);
+            } else if ((packed & 0xF0) != 0) {
+                throw new IOException("Padding after cell 80 is not zero");
+            }
+        }
+
+        long fixedLo = 0;
+        long fixedHi = 0;
+        for (int k = 0; k < MASK_BYTES; k++) {
+            long bits = in.get(offset + VALUE_BYTES + k) & 0xFFL;
+            if (k < 8) {
+                fixedLo |= bits << (8 * k);
+            } else {
+                fixedHi |= bits << (8 * (k - 8));
+            }
+        }
+        if ((fixedHi & ~FIXED_HI_MASK) != 0) throw new IOException("Fixed mask has bits past cell 80");
+
+        for (int i = 0; i < 81; i++) {
+            boolean isFixed = ((i < 64 ? fixedLo >>> i : fixedHi >>> (i - 64)) & 1L) != 0;
+            if (values[i] > 9) throw new IOException("Invalid value " + values[i] + " in cell " + i);
+            if (isFixed && values[i] == 0) throw new IOException("Fixed cell " + i + " has no value");
+        }
+        board.restore(values, fixedLo, fixedHi);
+    }
+
+    /**
+     * Encodes a board as a complete single-game save file.
+     */
+    public static byte[] encodeFile(Board board) {
+        MoveJournal journal = board.getJournal();
+        int journalSize = journal != null ? journal.encodedSize() : 0;
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_MAGIC.length + RECORD_SIZE + journalSize);
+        buffer.put(FILE_MAGIC);
+        write(board, buffer, FILE_MAGIC.length);
+        if (journal != null) {
+            journal.write(buffer, FILE_MAGIC.length + RECORD_SIZE);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a single-game save file into a board, with its move journal if it has one.
+     *
+     * @throws IOException If the data is not a valid binary save.
+     */
+    public static void decodeFile(byte[] data, Board board) throws IOException {
+        if (!isBinaryFile(data)) throw new IOException("Not a binary save file.");
+        if (data.length < FILE_MAGIC.length + RECORD_SIZE) throw new IOException("Save file incomplete.");
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        read(buffer, FILE_MAGIC.length, board);
+        if (MoveJournal.isJournal(buffer, FILE_MAGIC.length + RECORD_SIZE)) {
+            board.setJournal(MoveJournal.read(buffer, FILE_MAGIC.length + RECORD_SIZE, board));
+        }
+    }
+
+    /**
+     * Checks whether the data starts with the binary save header.
+     */
+    public static boolean isBinaryFile(byte[] data) {
+        if (data.length < FILE_MAGIC.length) return false;
+        for (int i = 0; i < FILE_MAGIC.length; i++) {
+            if (data[i] != FILE_MAGIC[i]) return false;
+        }
+        return true;
+    }
+}
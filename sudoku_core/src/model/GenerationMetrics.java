@@ -0,0 +1,232 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and latency histograms of puzzle generation, per phase: filling a
+ * full grid, digging holes (each a uniqueness check) and grading.
+ *
+ * Metrics are off by default. {@link #enable()} installs a collector that
+ * {@link SudokuGenerator} picks up at the start of every generation; while
+ * none is installed the generator only pays one field read per puzzle.
+ * Counters are {@link LongAdder}s, so threads generating in parallel do not
+ * contend on them.
+ */
+public final class GenerationMetrics implements GenerationMetricsMBean {
+    /** Name under which {@link #registerMBean()} publishes the metrics. */
+    public static final String OBJECT_NAME = "model:type=GenerationMetrics";
+
+    private static volatile GenerationMetrics active;
+
+    private final LongAdder generations = new LongAdder();
+    private final LongAdder outOfBand = new LongAdder();
+    private final LongAdder gradingAttempts = new LongAdder();
+    private final LongAdder fillNodes = new LongAdder();
+    private final LongAdder removalAttempts = new LongAdder();
+    private final LongAdder removalFailures = new LongAdder();
+    private final LongAdder solverNodes = new LongAdder();
+    private final LatencyHistogram generateTimes = new LatencyHistogram();
+    private final LatencyHistogram fillTimes = new LatencyHistogram();
+    private final LatencyHistogram checkTimes = new LatencyHistogram();
+    private final LatencyHistogram gradeTimes = new LatencyHistogram();
+
+    private GenerationMetrics() {
+    }
+
+    /**
+     * Starts collecting metrics, keeping the current collector if there is one.
+     *
+     * @return The active collector.
+     */
+    public static synchronized GenerationMetrics enable() {
+        if (active == null) {
+            active = new GenerationMetrics();
+        }
+        return active;
+    }
+
+    /**
+     * Stops collecting metrics. Generations already running finish recording
+     * into the collector they started with.
+     */
+    public static synchronized void disable() {
+        active = null;
+    }
+
+    /**
+     * Returns the active collector, or null when metrics are disabled.
+     */
+    public static GenerationMetrics current() {
+        return active;
+    }
+
+    /**
+     * Publishes this collector on the platform MBean server under {@link #OBJECT_NAME}.
+     *
+     * @throws JMException If the name is already registered or the bean is rejected.
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    void recordGeneration(long nanos, boolean inBand) {
+        generations.increment();
+        if (!inBand) outOfBand.increment();
+        generateTimes.record(nanos);
+    }
+
+    void recordGrading(long nanos) {
+        gradingAttempts.increment();
+        gradeTimes.record(nanos);
+    }
+
+    void recordFill(long nanos, long nodes) {
+        fillTimes.record(nanos);
+        fillNodes.add(nodes);
+    }
+
+    void recordCheck(long nanos, long nodes, boolean removed) {
+        removalAttempts.increment();
+        if (!removed) removalFailures.increment();
+        solverNodes.add(nodes);
+        checkTimes.record(nanos);
+    }
+
+    /** Generation latency, from the request to the finished puzzle. */
+    public LatencyHistogram getGenerateTimes() {
+        return generateTimes;
+    }
+
+    /** Time taken to fill a full grid. */
+    public LatencyHistogram getFillTimes() {
+        return fillTimes;
+    }
+
+    /** Time taken by each uniqueness check while digging holes. */
+    public LatencyHistogram getCheckTimes() {
+        return checkTimes;
+    }
+
+    /** Time taken to grade each dug candidate. */
+    public LatencyHistogram getGradeTimes() {
+        return gradeTimes;
+    }
+
+    /** Puzzles generated. */
+    @Override
+    public long getGenerations() {
+        return generations.sum();
+    }
+
+    /** Puzzles returned with a rating outside their difficulty's band. */
+    @Override
+    public long getOutOfBandPuzzles() {
+        return outOfBand.sum();
+    }
+
+    /** Candidate puzzles dug and graded; more than one per puzzle when ratings miss the band. */
+    @Override
+    public long getGradingAttempts() {
+        return gradingAttempts.sum();
+    }
+
+    @Override
+    public long getGradeMeanNanos() {
+        return gradeTimes.getMeanNanos();
+    }
+
+    @Override
+    public long getGradeMaxNanos() {
+        return gradeTimes.getMaxNanos();
+    }
+
+    @Override
+    public long getFillCount() {
+        return fillTimes.getCount();
+    }
+
+    /** Search nodes visited while filling grids; nodes beyond 81 per fill are backtracking. */
+    @Override
+    public long getFillNodes() {
+        return fillNodes.sum();
+    }
+
+    @Override
+    public long getFillMeanNanos() {
+        return fillTimes.getMeanNanos();
+    }
+
+    @Override
+    public long getFillMaxNanos() {
+        return fillTimes.getMaxNanos();
+    }
+
+    /** Cells (or symmetric pairs) the generator tried to empty. */
+    @Override
+    public long getRemovalAttempts() {
+        return removalAttempts.sum();
+    }
+
+    /** Removal attempts undone because the puzzle stopped being unique. */
+    @Override
+    public long getRemovalFailures() {
+        return removalFailures.sum();
+    }
+
+    /** Search nodes visited by the uniqueness checks. */
+    @Override
+    public long getSolverNodes() {
+        return solverNodes.sum();
+    }
+
+    @Override
+    public long getCheckMeanNanos() {
+        return checkTimes.getMeanNanos();
+    }
+
+    @Override
+    public long getCheckP99Nanos() {
+        return checkTimes.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getGenerateMeanNanos() {
+        return generateTimes.getMeanNanos();
+    }
+
+    @Override
+    public long getGenerateP50Nanos() {
+        return generateTimes.getPercentileNanos(50);
+    }
+
+    @Override
+    public long getGenerateP99Nanos() {
+        return generateTimes.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getGenerateMaxNanos() {
+        return generateTimes.getMaxNanos();
+    }
+
+    @Override
+    public void reset() {
+        generations.reset();
+        outOfBand.reset();
+        gradingAttempts.reset();
+        fillNodes.reset();
+        removalAttempts.reset();
+        removalFailures.reset();
+        solverNodes.reset();
+        generateTimes.reset();
+        fillTimes.reset();
+        checkTimes.reset();
+        gradeTimes.reset();
+    }
+}
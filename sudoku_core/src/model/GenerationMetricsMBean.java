@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * JMX view of {@link GenerationMetrics}. Durations are in nanoseconds.
+ */
+public interface GenerationMetricsMBean {
+    long getGenerations();
+
+    long getOutOfBandPuzzles();
+
+    long getGradingAttempts();
+
+    long getGradeMeanNanos();
+
+    long getGradeMaxNanos();
+
+    long getFillCount();
+
+    long getFillNodes();
+
+    long getFillMeanNanos();
+
+    long getFillMaxNanos();
+
+    long getRemovalAttempts();
+
+    long getRemovalFailures();
+
+    long getSolverNodes();
+
+    long getCheckMeanNanos();
+
+    long getCheckP99Nanos();
+
+    long getGenerateMeanNanos();
+
+    long getGenerateP50Nanos();
+
+    long getGenerateP99Nanos();
+
+    long getGenerateMaxNanos();
+
+    void reset();
+}
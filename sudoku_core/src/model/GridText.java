@@ -0,0 +1,95 @@
+package model;
+
+/**
+ * The common one-line text form of a 9x9 grid: 81 characters in row-major
+ * order, '1'-'9' for digits and '0' or '.' for empty cells.
+ */
+public final class GridText {
+    public static final int LENGTH = 81;
+
+    private GridText() {
+    }
+
+    /**
+     * Parses a grid line.
+     *
+     * @param text The 81 characters of the grid.
+     * @return A new 9x9 integer array, 0 for empty cells.
+     * @throws IllegalArgumentException If the text is not a valid grid line.
+     */
+    public static int[][] parse(CharSequence text) {
+        int[][] grid = new int[9][9];
+        parse(text, grid);
+        return grid;
+    }
+
+    /**
+     * Parses a grid line into an existing array.
+     *
+     * @param text The 81 characters of the grid.
+     * @param grid A 9x9 integer array receiving the values.
+     * @throws IllegalArgumentException If the text is not a valid grid line.
+     */
+    public static void parse(CharSequence text, int[][] grid) {
+        if (text == null || text.length() != LENGTH) {
+            throw new IllegalArgumentException("A grid must have exactly " + LENGTH + " characters.");
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            grid[i / 9][i % 9] = digit(text.charAt(i), i);
+        }
+    }
+
+    /**
+     * Parses a grid line held as ASCII bytes, for bulk readers that never build Strings.
+     *
+     * @param bytes  The buffer holding the line.
+     * @param offset Index of the line's first character.
+     * @param grid   A 9x9 integer array receiving the values.
+     * @throws IllegalArgumentException If the bytes are not a valid grid line.
+     */
+    public static void parse(byte[] bytes, int offset, int[][] grid) {
+        for (int i = 0; i < LENGTH; i++) {
+            grid[i / 9][i % 9] = digit(bytes[offset + i], i);
+        }
+    }
+
+    /**
+     * Formats a grid as ASCII bytes, with '0' for empty cells.
+     *
+     * @param grid   A 9x9 integer array.
+     * @param out    The buffer receiving the {@value #LENGTH} characters.
+     * @param offset Index of the first character to write.
+     */
+    public static void format(int[][] grid, byte[] out, int offset) {
+        for (int i = 0; i < LENGTH; i++) {
+            out[offset + i] = (byte) ('0' + grid[i / 9][i % 9]);
+        }
+    }
+
+    /**
+     * Formats a grid as a line, with '0' for empty cells.
+     *
+     * @param grid A 9x9 integer array.
+     * @return The 81-character line.
+     */
+    public static String format(int[][] grid) {
+        char[] text = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            text[i] = (char) ('0' + grid[i / 9][i % 9]);
+        }
+        return new String(text);
+    }
+
+    /**
+     * Returns the value (0-9) of a grid character.
+     *
+     * @throws IllegalArgumentException If the character is not a digit or '.'.
+     */
+    static int digit(int c, int index) {
+        if (c == '.') return 0;
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Invalid character '" + (char) c + "' at position " + index);
+        }
+        return c - '0';
+    }
+}
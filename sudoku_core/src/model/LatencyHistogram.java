@@ -0,0 +1,80 @@
+package model;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with power-of-two buckets.
+ *
+ * Bucket b counts the values v with 2^(b-1) <= v < 2^b, so recording is one
+ * leading-zero count and a {@link LongAdder} increment, which stays cheap when
+ * many threads record at once. Percentiles are reported as the upper bound of
+ * their bucket, i.e. within a factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int b = 0; b < BUCKETS; b++) {
+            buckets[b] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0; // nanoTime differences are never negative in practice
+        buckets[BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the given percentile.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The upper bound of the bucket holding it, capped at the maximum; 0 if empty.
+     */
+    public long getPercentileNanos(double percentile) {
+        long n = count.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(n * percentile / 100.0);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets[b].sum();
+            if (seen >= rank && seen > 0) {
+                return b == 0 ? 0 : Math.min((1L << b) - 1, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears every bucket. Values recorded concurrently with a reset may be partly kept.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Set of {@code long} keys in a single open-addressing table.
+ *
+ * Keys are stored unboxed in a {@code long[]} probed linearly, so an entry
+ * costs 8 to 16 bytes instead of the ~50 of a {@code HashSet<Long>} entry,
+ * and membership checks touch one or two cache lines. The table doubles once
+ * it is three-quarters full. Key 0 marks empty slots and is tracked apart.
+ *
+ * Keys are expected to be well mixed already, like {@link CanonicalForm#key(int[][])};
+ * they are scrambled once more before probing all the same.
+ *
+ * Not thread-safe.
+ */
+public final class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    private int size;      // Keys in the table, not counting 0
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Creates a set sized to hold the expected number of keys without growing.
+     */
+    public LongHashSet(int expected) {
+        if (expected < 0) throw new IllegalArgumentException("The expected size must not be negative.");
+        long capacity = Math.max(MIN_CAPACITY, Long.highestOneBit(Math.max(1, expected * 4L / 3) * 2 - 1));
+        if (capacity > 1 << 30) throw new IllegalArgumentException("Too many keys: " + expected);
+        table = new long[(int) capacity];
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @return true if the key was not in the set yet.
+     */
+    public boolean add(long key) {
+        if (key == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            return true;
+        }
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) return false;
+            if (current == 0) {
+                table[slot] = key;
+                if (++size > table.length / 4 * 3) grow();
+                return true;
+            }
+        }
+    }
+
+    public boolean contains(long key) {
+        if (key == 0) return hasZero;
+        int mask = table.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long current = table[slot];
+            if (current == key) return true;
+            if (current == 0) return false;
+        }
+    }
+
+    public int size() {
+        return size + (hasZero ? 1 : 0);
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+        size = 0;
+        hasZero = false;
+    }
+
+    private void grow() {
+        if (table.length == 1 << 30) throw new IllegalStateException("The set is full.");
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int slot = slot(key, mask);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,244 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Undo/redo history of the moves made on a {@link Board}.
+ *
+ * Each move is one {@link CellChange}-packed {@code int}, kept in a
+ * fixed-capacity ring: once full, the oldest moves are dropped and can no
+ * longer be undone. Undo and redo only rewrite one cell.
+ * Every {@value #SNAPSHOT_INTERVAL} moves the journal also keeps a packed
+ * {@link Board#snapshot()} of the board, so {@link #seek(Board, long)} can jump
+ * far through the history by restoring a snapshot and replaying at most
+ * {@value #SNAPSHOT_INTERVAL} moves instead of undoing them one by one.
+ *
+ * Positions count moves since the journal was started: position p is the
+ * board after its first p moves.
+ */
+public final class MoveJournal {
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int SNAPSHOT_INTERVAL = 64;
+    public static final int MAX_CAPACITY = 1 << 20;
+
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'J'};
+    private static final int HEADER_SIZE = MAGIC.length + 4 + 3 * 8; // Magic, capacity, first, cursor, end
+
+    private final int[] entries;      // Ring of packed moves, move i at [i % capacity]
+    private final long[][] snapshots; // Ring of board snapshots, position k * INTERVAL at [k % length]
+    private long first;  // Oldest position still reachable
+    private long cursor; // Current position
+    private long end;    // Last position that can be redone to
+
+    /**
+     * Creates an empty journal whose position 0 is the board's current state.
+     *
+     * @param board    The board the journal follows.
+     * @param capacity Number of moves kept.
+     */
+    MoveJournal(Board board, int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("The journal capacity must be between 1 and " + MAX_CAPACITY + ".");
+        }
+        this.entries = new int[capacity];
+        this.snapshots = new long[capacity / SNAPSHOT_INTERVAL + 2][6];
+        reset(board);
+    }
+
+    /**
+     * Forgets every move; the board's current state becomes position 0.
+     */
+    void reset(Board board) {
+        first = 0;
+        cursor = 0;
+        end = 0;
+        board.snapshotInto(snapshots[0]);
+    }
+
+    /**
+     * Appends a move made on the board, discarding any moves that could have been redone.
+     */
+    void record(Board board, int cell, int oldValue, int newValue) {
+        entries[(int) (cursor % entries.length)] = CellChange.pack(cell, oldValue, newValue);
+        cursor++;
+        end = cursor;
+        if (end - first > entries.length) {
+            first = end - entries.length; // The ring wrapped over the oldest move
+        }
+        if (cursor % SNAPSHOT_INTERVAL == 0) {
+            board.snapshotInto(snapshot(cursor));
+        }
+    }
+
+    /**
+     * Undoes the last move.
+     *
+     * @return false if there is nothing left to undo.
+     */
+    public boolean undo(Board board) {
+        if (cursor == first) return false;
+        cursor--;
+        int entry = entries[(int) (cursor % entries.length)];
+        board.applyMove(CellChange.cell(entry), CellChange.oldValue(entry));
+        return true;
+    }
+
+    /**
+     * Redoes the last undone move.
+     *
+     * @return false if there is nothing left to redo.
+     */
+    public boolean redo(Board board) {
+        if (cursor == end) return false;
+        int entry = entries[(int) (cursor % entries.length)];
+        board.applyMove(CellChange.cell(entry), CellChange.newValue(entry));
+        cursor++;
+        return true;
+    }
+
+    /**
+     * Moves the board to any reachable position of the history.
+     *
+     * @param position The target position, clamped to {@link #getFirst()}..{@link #getEnd()}.
+     */
+    public void seek(Board board, long position) {
+        position = Math.max(first, Math.min(end, position));
+        long base = position - position % SNAPSHOT_INTERVAL;
+        board.beginBatch(); // Listeners see the jump, not every step
+        try {
+            // Restore the nearest snapshot only when that beats stepping from the current position
+            if (base >= first && Math.abs(position - cursor) > position - base) {
+                board.restoreValues(snapshot(base));
+                cursor = base;
+            }
+            while (cursor < position) redo(board);
+            while (cursor > position) undo(board);
+        } finally {
+            board.endBatch();
+        }
+    }
+
+    /** Current position: the number of moves applied since the journal started. */
+    public long getPosition() {
+        return cursor;
+    }
+
+    /** Oldest position that can still be reached by undoing. */
+    public long getFirst() {
+        return first;
+    }
+
+    /** Newest position that can be reached by redoing. */
+    public long getEnd() {
+        return end;
+    }
+
+    public boolean canUndo() {
+        return cursor > first;
+    }
+
+    public boolean canRedo() {
+        return cursor < end;
+    }
+
+    private long[] snapshot(long position) {
+        return snapshots[(int) ((position / SNAPSHOT_INTERVAL) % snapshots.length)];
+    }
+
+    /**
+     * Returns the encoded size of the journal in bytes.
+     */
+    int encodedSize() {
+        return HEADER_SIZE + 2 * (int) (end - first);
+    }
+
+    /**
+     * Writes the journal at the buffer's absolute offset: a header, then each
+     * move between the first and the end position as a 16-bit value.
+     * Snapshots are not written; they are rebuilt on reading.
+     */
+    void write(ByteBuffer out, int offset) {
+        for (int i = 0; i < MAGIC.length; i++) {
+            out.put(offset + i, MAGIC[i]);
+        }
+        out.putInt(offset + 4, entries.length);
+        out.putLong(offset + 8, first);
+        out.putLong(offset + 16, cursor);
+        out.putLong(offset + 24, end);
+        int at = offset + HEADER_SIZE;
+        for (long i = first; i < end; i++) {
+            out.putShort(at, (short) entries[(int) (i % entries.length)]);
+            at += 2;
+        }
+    }
+
+    /**
+     * Checks whether the buffer holds a journal at the given absolute offset.
+     */
+    static boolean isJournal(ByteBuffer in, int offset) {
+        if (in.limit() - offset < HEADER_SIZE) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in.get(offset + i) != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads a journal written by {@link #write(ByteBuffer, int)} for a board
+     * already holding the state at the journal's current position.
+     *
+     * @throws IOException If the journal is truncated or does not match the board.
+     */
+    static MoveJournal read(ByteBuffer in, int offset, Board board) throws IOException {
+        int capacity = in.getInt(offset + 4);
+        long first = in.getLong(offset + 8);
+        long cursor = in.getLong(offset + 16);
+        long end = in.getLong(offset + 24);
+        if (capacity < 1 || capacity > MAX_CAPACITY || first < 0 || cursor < first || end < cursor || end - first > capacity) {
+            throw new IOException("Invalid journal header.");
+        }
+        if (in.limit() - offset - HEADER_SIZE < 2 * (end - first)) {
+            throw new IOException("Journal incomplete.");
+        }
+
+        MoveJournal journal = new MoveJournal(board, capacity);
+        journal.first = first;
+        journal.cursor = cursor;
+        journal.end = end;
+        int at = offset + HEADER_SIZE;
+        for (long i = first; i < end; i++) {
+            int entry = in.getShort(at) & 0xFFFF;
+            at += 2;
+            if (CellChange.cell(entry) >= 81 || CellChange.oldValue(entry) > 9 || CellChange.newValue(entry) > 9) {
+                throw new IOException("Invalid move in journal at position " + i);
+            }
+            journal.entries[(int) (i % capacity)] = entry;
+        }
+        journal.rebuildSnapshots(board);
+        return journal;
+    }
+
+    /**
+     * Recomputes the snapshots of every reachable position by walking a copy
+     * of the board back to the first position and then forward to the end.
+     */
+    private void rebuildSnapshots(Board board) {
+        Board walker = board.copy();
+        long position = cursor;
+        while (position > first) {
+            position--;
+            int entry = entries[(int) (position % entries.length)];
+            walker.applyMove(CellChange.cell(entry), CellChange.oldValue(entry));
+        }
+        while (true) {
+            if (position % SNAPSHOT_INTERVAL == 0) {
+                walker.snapshotInto(snapshot(position));
+            }
+            if (position == end) break;
+            int entry = entries[(int) (position % entries.length)];
+            walker.applyMove(CellChange.cell(entry), CellChange.newValue(entry));
+            position++;
+        }
+    }
+}
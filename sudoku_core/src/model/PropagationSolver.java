@@ -0,0 +1,360 @@
+package model;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Solver for grids of any {@link SudokuSize}, built for the 16x16 and 25x25
+ * variants where plain backtracking does not finish.
+ *
+ * Every cell keeps a {@code long} candidate mask. Placing a digit removes it
+ * from the cell's peers, and the solver keeps placing naked singles (cells with
+ * one candidate) and hidden singles (digits with one place left in a unit)
+ * until neither applies, before branching on the cell with the fewest
+ * candidates or the digit with the fewest places left in a unit. Changes are recorded on a trail, so backtracking undoes exactly
+ * what a guess caused instead of copying the grid.
+ *
+ * All buffers are allocated once per solver; instances are not thread-safe.
+ */
+public class PropagationSolver implements SolutionCounter {
+    private static final int PLACED = 1 << 30; // Trail flag: the entry undoes a placement
+    private static final int OUT_OF_GUESSES = -1; // Search result when the guess limit was reached
+
+    private final SudokuSize size;
+    private final long guessLimit;
+    private final int side;
+    private final int cells;
+    private final int[][] units;
+    private final int[][] peers;
+
+    private final long[] candidates;
+    private final int[] values;
+    private int filled;
+
+    // Undo log: cell (with PLACED for placements) and the mask it had before
+    private final int[] trailCells;
+    private final long[] trailMasks;
+    private int trailSize;
+
+    // Cells left with a single candidate that still have to be placed
+    private final int[] queue;
+    private int queueSize;
+
+    // Branch at each depth: either a cell and its untried candidates, or a unit,
+    // a digit and the untried positions (bit k = k-th cell of the unit) of that digit
+    private final int[] stackTargets;    // Cell, or unit when a digit is set
+    private final long[] stackDigits;    // Digit bit of a unit branch, 0 for a cell branch
+    private final long[] stackRemaining; // Candidate bits or positions not yet tried
+    private final int[] stackTrail;      // Trail size before the guess
+
+    private long guesses; // Guesses made by the last search
+
+    public PropagationSolver(SudokuSize size) {
+        this(size, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a solver that gives up after a number of guesses. A search that
+     * runs out of guesses reports 'limit' solutions, so an uncertain board is
+     * treated as not unique: the safe answer when digging puzzles.
+     *
+     * @param size       The size of the boards to solve.
+     * @param guessLimit The maximum number of guesses per search.
+     */
+    public PropagationSolver(SudokuSize size, long guessLimit) {
+        if (guessLimit <= 0) throw new IllegalArgumentException("The guess limit must be positive.");
+        this.size = size;
+        this.guessLimit = guessLimit;
+        this.side = size.getSide();
+        this.cells = size.getCells();
+        this.units = size.units();
+        this.peers = size.peers();
+        candidates = new long[cells];
+        values = new int[cells];
+        // Each cell is placed once and loses each candidate at most once per path
+        trailCells = new int[cells * (side + 2)];
+        trailMasks = new long[trailCells.length];
+        queue = new int[cells];
+        stackTargets = new int[cells];
+        stackDigits = new long[cells];
+        stackRemaining = new long[cells];
+        stackTrail = new int[cells];
+    }
+
+    public SudokuSize getSize() {
+        return size;
+    }
+
+    /**
+     * Returns how many guesses the last search made; zero when propagation alone solved it.
+     */
+    public long getGuesses() {
+        return guesses;
+    }
+
+    @Override
+    public long getNodes() {
+        return guesses;
+    }
+
+    /**
+     * Counts the solutions of a board of this solver's size.
+     *
+     * @param board A side x side integer array, 0 for empty cells.
+     * @param limit The maximum number of solutions to count.
+     * @return The number of solutions found, never more than 'limit'; 'limit'
+     *         as well if the guess limit was reached first.
+     */
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        if (!load(board) || limit <= 0) return 0;
+        int count = search(limit, null);
+        return count == OUT_OF_GUESSES ? limit : count;
+    }
+
+    /**
+     * Solves a board in place with its first solution.
+     *
+     * @param board A side x side integer array, 0 for empty cells.
+     * @return true if a solution was found, false if the board has none or
+     *         the guess limit was reached first.
+     */
+    public boolean solve(int[][] board) {
+        return fill(board, null);
+    }
+
+    /**
+     * Completes a board with a random solution, trying candidates in random order.
+     *
+     * @param board  A side x side integer array, 0 for empty cells. Filled in place on success.
+     * @param random Source of randomness for the digit order, or null for ascending order.
+     * @return true if the board was successfully filled, false otherwise; the
+     *         board is left untouched when the guess limit was reached first.
+     */
+    public boolean fill(int[][] board, RandomGenerator random) {
+        if (!load(board) || search(1, random) != 1) return false;
+        for (int c = 0; c < cells; c++) {
+            board[c / side][c % side] = values[c];
+        }
+        return true;
+    }
+
+    /**
+     * Runs the search on the loaded, propagated grid. When it stops on the
+     * 'limit'-th solution, that solution is left in 'values'.
+     *
+     * @return The number of solutions found, or {@link #OUT_OF_GUESSES} if the
+     *         guess limit was reached first.
+     */
+    private int search(int limit, RandomGenerator random) {
+        int count = 0;
+        int depth = 0;
+        boolean descend = true;
+        while (true) {
+            if (descend) {
+                if (filled == cells) {
+                    if (++count >= limit) break;
+                } else {
+                    chooseBranch(depth);
+                    stackTrail[depth] = trailSize;
+                    depth++;
+                }
+            }
+            if (depth == 0) break; // Every branch explored
+
+            // Undo everything the last guess at the top of the stack caused, then try the next one
+            int top = depth - 1;
+            undo(stackTrail[top]);
+            long remaining = stackRemaining[top];
+            if (remaining == 0) {
+                depth--;
+                descend = false;
+                continue;
+            }
+            if (++guesses > guessLimit) return OUT_OF_GUESSES; // 'values' holds a partial grid
+            long bit = random == null ? remaining & -remaining : randomBit(remaining, random);
+            stackRemaining[top] = remaining & ~bit;
+            queueSize = 0;
+            long digit = stackDigits[top];
+            if (digit == 0) {
+                descend = place(stackTargets[top], bit) && propagate();
+            } else {
+                descend = place(units[stackTargets[top]][Long.numberOfTrailingZeros(bit)], digit) && propagate();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Loads the board and propagates its givens.
+     *
+     * @return false if the givens already contradict each other.
+     */
+    private boolean load(int[][] board) {
+        if (board.length != side) throw new IllegalArgumentException("Board must be " + size + ".");
+        long all = size.allDigits();
+        for (int c = 0; c < cells; c++) {
+            candidates[c] = all;
+            values[c] = 0;
+        }
+        filled = 0;
+        trailSize = 0;
+        queueSize = 0;
+        guesses = 0;
+        for (int c = 0; c < cells; c++) {
+            int value = board[c / side][c % side];
+            if (value == 0) continue;
+            if (value < 0 || value > side) throw new IllegalArgumentException("Invalid value " + value + " in cell " + c);
+            if (!place(c, 1L << (value - 1))) return false;
+        }
+        boolean consistent = propagate();
+        trailSize = 0; // The givens are never undone
+        return consistent;
+    }
+
+    /**
+     * Places a digit and removes it from the candidates of every peer, queuing
+     * peers that are left with a single candidate.
+     *
+     * @return false if the digit is not a candidate or a peer runs out of candidates.
+     */
+    private boolean place(int cell, long bit) {
+        if (values[cell] != 0 || (candidates[cell] & bit) == 0) return false;
+        record(cell | PLACED, candidates[cell]);
+        candidates[cell] = bit;
+        values[cell] = Long.numberOfTrailingZeros(bit) + 1;
+        filled++;
+        for (int p : peers[cell]) {
+            long mask = candidates[p];
+            if ((mask & bit) == 0) continue;
+            mask &= ~bit;
+            if (mask == 0) return false;
+            record(p, candidates[p]);
+            candidates[p] = mask;
+            if ((mask & (mask - 1)) == 0 && values[p] == 0) queue[queueSize++] = p;
+        }
+        return true;
+    }
+
+    /**
+     * Places naked and hidden singles until neither is left.
+     *
+     * @return false if the grid turned out to be contradictory.
+     */
+    private boolean propagate() {
+        long all = size.allDigits();
+        while (true) {
+            while (queueSize > 0) {
+                int cell = queue[--queueSize];
+                if (values[cell] == 0 && !place(cell, candidates[cell])) {
+                    queueSize = 0;
+                    return false;
+                }
+            }
+
+            boolean progress = false;
+            for (int[] unit : units) {
+                // Digits seen once and digits seen more than once among the unit's candidates
+                long once = 0;
+                long more = 0;
+                for (int c : unit) {
+                    more |= once & candidates[c];
+                    once |= candidates[c];
+                }
+                if (once != all) return false; // A digit has no place left in this unit
+                long single = once & ~more;
+                for (int c : unit) {
+                    if (single == 0) break;
+                    long bit = candidates[c] & single;
+                    if (bit == 0) continue;
+                    single &= ~bit;
+                    if (values[c] != 0) continue;
+                    if (!place(c, bit)) {
+                        queueSize = 0;
+                        return false;
+                    }
+                    progress = true;
+                }
+            }
+            if (!progress && queueSize == 0) return true;
+        }
+    }
+
+    /**
+     * Picks the narrowest branch for the given depth: the empty cell with the
+     * fewest candidates, unless some digit has fewer places left in a unit.
+     * On large grids the second kind is often much narrower.
+     */
+    private void chooseBranch(int depth) {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int c = 0; c < cells; c++) {
+            if (values[c] != 0) continue;
+            int count = Long.bitCount(candidates[c]);
+            if (count < bestCount) {
+                best = c;
+                bestCount = count;
+                if (count <= 2) break; // Singles are already placed, so two is the minimum
+            }
+        }
+        stackTargets[depth] = best;
+        stackDigits[depth] = 0;
+        stackRemaining[depth] = candidates[best];
+        if (bestCount <= 2) return;
+
+        long all = size.allDigits();
+        for (int u = 0; u < units.length; u++) {
+            int[] unit = units[u];
+            long placed = 0;
+            for (int c : unit) {
+                if (values[c] != 0) placed |= candidates[c];
+            }
+            for (long open = all & ~placed; open != 0; open &= open - 1) {
+                long bit = open & -open;
+                long positions = 0;
+                for (int k = 0; k < side; k++) {
+                    if ((candidates[unit[k]] & bit) != 0) positions |= 1L << k;
+                }
+                int count = Long.bitCount(positions);
+                if (count < bestCount) {
+                    bestCount = count;
+                    stackTargets[depth] = u;
+                    stackDigits[depth] = bit;
+                    stackRemaining[depth] = positions;
+                    if (count <= 2) return;
+                }
+            }
+        }
+    }
+
+    private void record(int cell, long mask) {
+        trailCells[trailSize] = cell;
+        trailMasks[trailSize] = mask;
+        trailSize++;
+    }
+
+    /**
+     * Rolls the grid back to the state it had when the trail held 'mark' entries.
+     */
+    private void undo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int cell = trailCells[trailSize];
+            if ((cell & PLACED) != 0) {
+                cell &= ~PLACED;
+                values[cell] = 0;
+                filled--;
+            }
+            candidates[cell] = trailMasks[trailSize];
+        }
+    }
+
+    /**
+     * Picks one set bit of the mask uniformly at random.
+     */
+    private static long randomBit(long mask, RandomGenerator random) {
+        for (int n = random.nextInt(Long.bitCount(mask)); n > 0; n--) {
+            mask &= mask - 1; // Drop the lowest set bit
+        }
+        return mask & -mask;
+    }
+}
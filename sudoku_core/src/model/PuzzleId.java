@@ -0,0 +1,132 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Compact 64-bit identifiers for reproducible puzzles.
+ *
+ * An ID packs the difficulty in its 2 high bits, the generator version in the
+ * next 4 and a 58-bit seed in the rest. Since
+ * {@link SudokuGenerator#generate(Difficulty, long)} is deterministic, the ID
+ * alone is enough to rebuild the puzzle, so storage layers only need to keep
+ * this key instead of the full grid.
+ *
+ * A change to generation (filling, digging, grading, retry limits) changes the
+ * puzzle behind a seed, so it must come with a new {@link #GENERATOR_VERSION}.
+ * IDs of other versions are then rejected rather than silently rebuilt into a
+ * different puzzle.
+ */
+public final class PuzzleId {
+    /** Version of the generator that IDs built by this class refer to. */
+    public static final int GENERATOR_VERSION = 1;
+
+    private static final int DIFFICULTY_SHIFT = 62;
+    private static final int VERSION_SHIFT = 58;
+    private static final long SEED_MASK = (1L << VERSION_SHIFT) - 1;
+    private static final int RADIX = 36;
+
+    private PuzzleId() {
+    }
+
+    /**
+     * Builds the ID of a puzzle for the current generator. Only the low 58 bits
+     * of the seed are kept, as in {@link SudokuGenerator#generate(Difficulty, long)},
+     * so the ID always rebuilds the puzzle generated from the seed.
+     *
+     * @param difficulty The difficulty level of the puzzle.
+     * @param seed       The generation seed.
+     * @return The packed ID.
+     */
+    public static long of(Difficulty difficulty, long seed) {
+        return ((long) difficulty.ordinal() << DIFFICULTY_SHIFT)
+                | ((long) GENERATOR_VERSION << VERSION_SHIFT) | maskSeed(seed);
+    }
+
+    /**
+     * Keeps the low 58 bits of a seed, the part an ID can hold. Seeded
+     * generation goes through this too, so seeds differing only in the top
+     * six bits produce the same puzzle and the same ID.
+     */
+    static long maskSeed(long seed) {
+        return seed & SEED_MASK;
+    }
+
+    /**
+     * Picks a fresh random ID for the given difficulty.
+     */
+    public static long random(Difficulty difficulty) {
+        return of(difficulty, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Extracts the difficulty level from an ID.
+     *
+     * @throws IllegalArgumentException If the ID encodes no known difficulty.
+     */
+    public static Difficulty difficulty(long id) {
+        int ordinal = (int) (id >>> DIFFICULTY_SHIFT);
+        Difficulty[] values = Difficulty.values();
+        if (ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown difficulty in puzzle ID: " + toString(id));
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Extracts the generator version from an ID.
+     */
+    public static int version(long id) {
+        return (int) (id >>> VERSION_SHIFT) & 0xF;
+    }
+
+    /**
+     * Extracts the generation seed from an ID.
+     */
+    public static long seed(long id) {
+        return maskSeed(id);
+    }
+
+    /**
+     * Regenerates the puzzle identified by the ID.
+     *
+     * @param id A puzzle ID built by {@link #of(Difficulty, long)}.
+     * @return A 9x9 integer array representing the puzzle.
+     * @throws IllegalArgumentException If the ID is from another generator version.
+     */
+    public static int[][] generate(long id) {
+        checkVersion(id);
+        return SudokuGenerator.generate(difficulty(id), seed(id));
+    }
+
+    /**
+     * Formats an ID as a short base-36 string, e.g. for URLs or logs.
+     */
+    public static String toString(long id) {
+        return Long.toUnsignedString(id, RADIX);
+    }
+
+    /**
+     * Parses an ID formatted by {@link #toString(long)}.
+     *
+     * @throws IllegalArgumentException If the text is not a valid puzzle ID or
+     *                                  is from another generator version.
+     */
+    public static long parse(String text) {
+        long id;
+        try {
+            id = Long.parseUnsignedLong(text.trim(), RADIX);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid puzzle ID: " + text, e);
+        }
+        difficulty(id); // Rejects IDs with an unknown difficulty
+        checkVersion(id);
+        return id;
+    }
+
+    private static void checkVersion(long id) {
+        if (version(id) != GENERATOR_VERSION) {
+            throw new IllegalArgumentException("Puzzle ID " + toString(id) + " is from generator version "
+                    + version(id) + ", this build rebuilds version " + GENERATOR_VERSION + ".");
+        }
+    }
+}
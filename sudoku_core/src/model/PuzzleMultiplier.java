@@ -0,0 +1,162 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Derives new puzzles from a small set of verified seed puzzles by applying
+ * random validity-preserving transforms.
+ *
+ * A transform relabels the digits, permutes the bands and the rows within each
+ * band, permutes the stacks and the columns within each stack, and may transpose
+ * the grid; rotations and reflections are among the combinations. The result has
+ * exactly as many solutions as its seed and needs the same solving techniques,
+ * so it is unique and of the same {@link Difficulty}, for the cost of copying 81
+ * cells instead of a fill and dozens of uniqueness checks. Each seed yields up to
+ * 2 x 6^8 x 9! (about 1.2 x 10^12) different grids.
+ *
+ * Derived puzzles are equivalent to their seed, so they share its
+ * {@link CanonicalForm}: use full generation where puzzles must differ beyond
+ * symmetry.
+ *
+ * The seeds are never modified, so one multiplier can be shared between threads.
+ */
+public final class PuzzleMultiplier {
+    private final Map<Difficulty, int[][][]> seeds = new EnumMap<>(Difficulty.class);
+
+    /**
+     * Creates a multiplier from given seeds, after checking that each one has a unique solution.
+     *
+     * @param seeds The seed puzzles of each difficulty; copied.
+     * @throws IllegalArgumentException If a difficulty has no seed or a seed is not a unique 9x9 puzzle.
+     */
+    public PuzzleMultiplier(Map<Difficulty, int[][][]> seeds) {
+        DancingLinksSolver solver = new DancingLinksSolver();
+        for (Difficulty difficulty : Difficulty.values()) {
+            int[][][] given = seeds.get(difficulty);
+            if (given == null || given.length == 0) {
+                throw new IllegalArgumentException("No seed puzzle for " + difficulty);
+            }
+            int[][][] copies = new int[given.length][][];
+            for (int s = 0; s < given.length; s++) {
+                copies[s] = copy(given[s]);
+                if (solver.countSolutions(copy(given[s]), 2) != 1) {
+                    throw new IllegalArgumentException("Seed " + s + " of " + difficulty + " does not have a unique solution.");
+                }
+            }
+            this.seeds.put(difficulty, copies);
+        }
+    }
+
+    /**
+     * Creates a multiplier from freshly generated seeds.
+     *
+     * @param seedsPerDifficulty The number of seeds generated for each difficulty.
+     * @return The multiplier.
+     */
+    public static PuzzleMultiplier generate(int seedsPerDifficulty) {
+        if (seedsPerDifficulty < 1) throw new IllegalArgumentException("At least one seed is needed.");
+        Map<Difficulty, int[][][]> seeds = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            seeds.put(difficulty, SudokuGenerator.generateBatch(difficulty, seedsPerDifficulty));
+        }
+        return new PuzzleMultiplier(seeds);
+    }
+
+    /**
+     * Derives a puzzle from a random seed of the given difficulty.
+     *
+     * @param difficulty The desired difficulty level.
+     * @return A new 9x9 puzzle owned by the caller.
+     */
+    public int[][] next(Difficulty difficulty) {
+        return next(difficulty, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Derives a puzzle drawing the seed and the transform from the given generator.
+     */
+    public int[][] next(Difficulty difficulty, RandomGenerator random) {
+        int[][][] candidates = seeds.get(difficulty);
+        return transform(candidates[random.nextInt(candidates.length)], random);
+    }
+
+    /**
+     * Returns the number of seeds of a difficulty.
+     */
+    public int seedCount(Difficulty difficulty) {
+        return seeds.get(difficulty).length;
+    }
+
+    /**
+     * Applies a random symmetry transform to a grid.
+     *
+     * @param grid   A 9x9 grid, 0 for empty cells; left unchanged.
+     * @param random The source of the transform.
+     * @return The transformed grid, as a new array.
+     */
+    public static int[][] transform(int[][] grid, RandomGenerator random) {
+        int[] rows = shuffledLines(random);
+        int[] cols = shuffledLines(random);
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = 9; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int tmp = digits[i];
+            digits[i] = digits[j];
+            digits[j] = tmp;
+        }
+        boolean transpose = random.nextBoolean();
+
+        int[][] result = new int[9][9];
+        for (int i = 0; i < 9; i++) {
+            int[] source = grid[rows[i]];
+            for (int j = 0; j < 9; j++) {
+                int value = digits[source[cols[j]]];
+                if (transpose) {
+                    result[j][i] = value;
+                } else {
+                    result[i][j] = value;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a random order of the 9 lines that keeps the lines of each band together.
+     */
+    private static int[] shuffledLines(RandomGenerator random) {
+        int[] bands = shuffled3(random);
+        int[] lines = new int[9];
+        for (int b = 0; b < 3; b++) {
+            int[] within = shuffled3(random);
+            for (int k = 0; k < 3; k++) {
+                lines[b * 3 + k] = bands[b] * 3 + within[k];
+            }
+        }
+        return lines;
+    }
+
+    private static int[] shuffled3(RandomGenerator random) {
+        int[] order = {0, 1, 2};
+        for (int i = 2; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    private static int[][] copy(int[][] grid) {
+        if (grid.length != 9) throw new IllegalArgumentException("Seed puzzles must be 9x9.");
+        int[][] copy = new int[9][];
+        for (int i = 0; i < 9; i++) {
+            if (grid[i].length != 9) throw new IllegalArgumentException("Seed puzzles must be 9x9.");
+            copy[i] = grid[i].clone();
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,176 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps ready-made puzzles for every {@link Difficulty} so that handing one out
+ * does not pay for generation.
+ *
+ * Each difficulty has a bounded lock-free shelf. When a shelf drops to the
+ * low-water mark, a background worker generates puzzles until it is full again.
+ * A take on an empty shelf counts as a miss and generates on the calling thread.
+ */
+public class PuzzlePool implements AutoCloseable {
+    private final int capacity;
+    private final int lowWater;
+    private final Map<Difficulty, Shelf> shelves = new EnumMap<>(Difficulty.class);
+    private final ExecutorService workers;
+
+    /**
+     * Creates a pool and starts filling every shelf in the background.
+     *
+     * @param capacity Maximum number of puzzles kept per difficulty.
+     * @param lowWater Refill is triggered when a shelf holds this many puzzles or fewer.
+     */
+    public PuzzlePool(int capacity, int lowWater) {
+        if (capacity < 1 || lowWater < 0 || lowWater >= capacity) {
+            throw new IllegalArgumentException("Expected 0 <= lowWater < capacity and capacity >= 1.");
+        }
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        this.workers = Executors.newFixedThreadPool(Difficulty.values().length, runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-pool-refill");
+            thread.setDaemon(true); // Never keeps the application alive
+            return thread;
+        });
+        for (Difficulty difficulty : Difficulty.values()) {
+            Shelf shelf = new Shelf(difficulty);
+            shelves.put(difficulty, shelf);
+            shelf.requestRefill();
+        }
+    }
+
+    /**
+     * Hands out a puzzle, from the shelf if one is ready.
+     *
+     * @param difficulty The desired difficulty level.
+     * @return A 9x9 integer array owned by the caller.
+     */
+    public int[][] take(Difficulty difficulty) {
+        Shelf shelf = shelves.get(difficulty);
+        int[][] puzzle = shelf.queue.poll();
+        if (puzzle != null) {
+            shelf.size.decrementAndGet();
+            shelf.hits.increment();
+        } else {
+            shelf.misses.increment();
+            puzzle = SudokuGenerator.generate(difficulty, new DancingLinksSolver());
+        }
+        if (shelf.size.get() <= lowWater) {
+            shelf.requestRefill();
+        }
+        return puzzle;
+    }
+
+    /**
+     * Returns the number of puzzles ready for a difficulty.
+     */
+    public int size(Difficulty difficulty) {
+        return shelves.get(difficulty).size.get();
+    }
+
+    /**
+     * Returns how many takes were served from the shelf.
+     */
+    public long hitCount(Difficulty difficulty) {
+        return shelves.get(difficulty).hits.sum();
+    }
+
+    /**
+     * Returns how many takes found the shelf empty and generated synchronously.
+     */
+    public long missCount(Difficulty difficulty) {
+        return shelves.get(difficulty).misses.sum();
+    }
+
+    /**
+     * Returns how many puzzles background workers have generated.
+     */
+    public long refillCount(Difficulty difficulty) {
+        return shelves.get(difficulty).refills.sum();
+    }
+
+    /**
+     * Returns the mean time a background worker took to generate one puzzle, in nanoseconds.
+     */
+    public long meanRefillNanos(Difficulty difficulty) {
+        Shelf shelf = shelves.get(difficulty);
+        long count = shelf.refills.sum();
+        return count == 0 ? 0 : shelf.refillNanos.sum() / count;
+    }
+
+    /**
+     * Returns the longest time a background worker took to generate one puzzle, in nanoseconds.
+     */
+    public long maxRefillNanos(Difficulty difficulty) {
+        return shelves.get(difficulty).maxRefillNanos.get();
+    }
+
+    /**
+     * Stops the background workers. Puzzles already on the shelves can still be taken.
+     */
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * The ready puzzles and counters of one difficulty.
+     */
+    private final class Shelf {
+        final Difficulty difficulty;
+        final ConcurrentLinkedQueue<int[][]> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger(); // Tracked apart, since the queue's own size() is O(n)
+        final AtomicBoolean refilling = new AtomicBoolean();
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder refills = new LongAdder();
+        final LongAdder refillNanos = new LongAdder();
+        final AtomicLong maxRefillNanos = new AtomicLong();
+
+        Shelf(Difficulty difficulty) {
+            this.difficulty = difficulty;
+        }
+
+        void requestRefill() {
+            if (refilling.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this::refill);
+                } catch (RejectedExecutionException e) {
+                    refilling.set(false); // The pool was closed
+                }
+            }
+        }
+
+        private void refill() {
+            DancingLinksSolver solver = new DancingLinksSolver();
+            try {
+                while (size.get() < capacity && !Thread.currentThread().isInterrupted()) {
+                    long start = System.nanoTime();
+                    int[][] puzzle = SudokuGenerator.generate(difficulty, solver);
+                    long elapsed = System.nanoTime() - start;
+                    refills.increment();
+                    refillNanos.add(elapsed);
+                    maxRefillNanos.accumulateAndGet(elapsed, Math::max);
+                    queue.offer(puzzle);
+                    size.incrementAndGet();
+                }
+            } finally {
+                refilling.set(false);
+            }
+            // A take may have drained the shelf after the last size check
+            if (size.get() <= lowWater) {
+                requestRefill();
+            }
+        }
+    }
+}
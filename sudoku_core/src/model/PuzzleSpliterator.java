@@ -0,0 +1,57 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator generating the puzzles [index, fence) of a batch.
+ *
+ * Every split hands the new half a {@link SplittableRandom#split() split}
+ * random generator, and each spliterator lazily creates its own solver, so
+ * parallel workers never share mutable state.
+ */
+class PuzzleSpliterator implements Spliterator<int[][]> {
+    private static final long MIN_SPLIT = 1; // A single puzzle is already worth a fork/join task
+
+    private final Difficulty difficulty;
+    private final SplittableRandom random;
+    private long index;
+    private final long fence;
+    private DancingLinksSolver solver;
+
+    PuzzleSpliterator(Difficulty difficulty, long index, long fence, SplittableRandom random) {
+        this.difficulty = difficulty;
+        this.index = index;
+        this.fence = fence;
+        this.random = random;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super int[][]> action) {
+        if (index >= fence) return false;
+        if (solver == null) solver = new DancingLinksSolver();
+        index++;
+        action.accept(SudokuGenerator.generate(difficulty, solver, random));
+        return true;
+    }
+
+    @Override
+    public Spliterator<int[][]> trySplit() {
+        long mid = (index + fence) >>> 1;
+        if (mid - index < MIN_SPLIT) return null;
+        PuzzleSpliterator prefix = new PuzzleSpliterator(difficulty, index, mid, random.split());
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
@@ -0,0 +1,154 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A grid being played in any {@link SudokuSize}, such as the 16x16 and 25x25
+ * variants.
+ *
+ * Mirrors the playing API of {@link Board}: values in a flat {@code byte[]},
+ * fixed cells in a {@code long[]} bitset and per-unit digit counts maintained
+ * incrementally, so move checks and the solved test stay constant-time at any
+ * size. The classic game keeps using {@link Board}, whose fixed 9x9 layout the
+ * save formats depend on.
+ */
+public class SizedBoard {
+    private final SudokuSize size;
+    private final int side;
+    private final byte[] values;
+    private final long[] fixed;
+    // Occurrences of each digit per unit, indexed [unit * side + (digit - 1)]
+    private final byte[] rowCounts;
+    private final byte[] colCounts;
+    private final byte[] boxCounts;
+    private int duplicates; // Extra copies of digits summed over all units
+    private int filled;     // Number of non-empty cells
+
+    public SizedBoard(SudokuSize size) {
+        this.size = size;
+        this.side = size.getSide();
+        this.values = new byte[size.getCells()];
+        this.fixed = new long[(size.getCells() + 63) >>> 6];
+        this.rowCounts = new byte[side * side];
+        this.colCounts = new byte[side * side];
+        this.boxCounts = new byte[side * side];
+    }
+
+    public SudokuSize getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the initial puzzle on the board.
+     * Non-zero values in the 'puzzle' are considered fixed cells.
+     *
+     * @param puzzle A side x side integer array, 0 for empty cells.
+     */
+    public void setInitialPuzzle(int[][] puzzle) {
+        if (puzzle == null || puzzle.length != side || puzzle[0].length != side) {
+            throw new IllegalArgumentException("The puzzle must be a " + size + " matrix.");
+        }
+
+        Arrays.fill(values, (byte) 0);
+        Arrays.fill(fixed, 0L);
+        Arrays.fill(rowCounts, (byte) 0);
+        Arrays.fill(colCounts, (byte) 0);
+        Arrays.fill(boxCounts, (byte) 0);
+        duplicates = 0;
+        filled = 0;
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                int value = puzzle[i][j];
+                if (value < 0 || value > side) {
+                    throw new IllegalArgumentException("Invalid value " + value + " at row " + i + ", column " + j);
+                }
+                if (value != 0) {
+                    int index = i * side + j;
+                    fixed[index >>> 6] |= 1L << index;
+                    values[index] = (byte) value;
+                    count(i, j, value, 1);
+                }
+            }
+        }
+    }
+
+    public int getCellValue(int row, int col) {
+        return values[row * side + col];
+    }
+
+    public void setCellValue(int row, int col, int value) {
+        if (isCellFixed(row, col)) return;
+        int old = values[row * side + col];
+        if (old == value) return;
+        if (old != 0) count(row, col, old, -1);
+        values[row * side + col] = (byte) value;
+        if (value != 0) count(row, col, value, 1);
+    }
+
+    public boolean isCellFixed(int row, int col) {
+        int index = row * side + col;
+        return (fixed[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks if a value can go in a cell without repeating in its row, column or box.
+     *
+     * @return true if the value is valid at the position, false otherwise.
+     */
+    public boolean isValidMove(int row, int col, int value) {
+        if (value == 0) return true; // A 0 (empty cell) is always valid for placement
+        int own = values[row * side + col] == value ? 1 : 0;
+        int d = value - 1;
+        return rowCounts[row * side + d] <= own
+                && colCounts[col * side + d] <= own
+                && boxCounts[box(row, col) * side + d] <= own;
+    }
+
+    /**
+     * Checks if the board is completely filled without any repeated digit.
+     */
+    public boolean isSolved() {
+        return filled == values.length && duplicates == 0;
+    }
+
+    /**
+     * Counts the rule violations currently on the board, as {@link Board#conflictCount()} does.
+     */
+    public int conflictCount() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the current values as a side x side array.
+     */
+    public int[][] toArray() {
+        int[][] grid = new int[side][side];
+        for (int i = 0; i < values.length; i++) {
+            grid[i / side][i % side] = values[i];
+        }
+        return grid;
+    }
+
+    private int box(int row, int col) {
+        int boxSize = size.getBoxSize();
+        return (row / boxSize) * boxSize + col / boxSize;
+    }
+
+    /**
+     * Adds (delta = 1) or removes (delta = -1) one occurrence of a digit at a cell.
+     */
+    private void count(int row, int col, int digit, int delta) {
+        int d = digit - 1;
+        int box = box(row, col);
+        if (delta > 0) {
+            if (++rowCounts[row * side + d] > 1) duplicates++;
+            if (++colCounts[col * side + d] > 1) duplicates++;
+            if (++boxCounts[box * side + d] > 1) duplicates++;
+        } else {
+            if (rowCounts[row * side + d]-- > 1) duplicates--;
+            if (colCounts[col * side + d]-- > 1) duplicates--;
+            if (boxCounts[box * side + d]-- > 1) duplicates--;
+        }
+        filled += delta;
+    }
+}
@@ -0,0 +1,306 @@
+package model;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A bounded cache of solution counts and solved grids, in front of a
+ * {@link DancingLinksSolver}.
+ *
+ * The same grids are solved again and again when players share a puzzle or
+ * ask for hints after every move; a hit costs a hash of the grid and a map
+ * lookup instead of a search. Grids are keyed by a 128-bit hash of their
+ * 81 packed cells: the chance that two different grids ever share a key is
+ * far below that of a hardware error, so the grids themselves are not stored.
+ *
+ * The entries are split over independently locked segments picked by the
+ * hash, each evicting its least recently used entry when full, so threads
+ * working on different grids rarely wait on each other. Hits, misses and
+ * evictions are counted to size the cache against real traffic, and can be
+ * published over JMX.
+ *
+ * A count is kept with the limit it was computed with. A count below its
+ * limit is exact and answers any later limit; a count that reached its limit
+ * only answers limits up to it, and a larger limit solves the grid again.
+ */
+public final class SolutionCache implements SolutionCounter, SolutionCacheMBean {
+    /** Name under which {@link #registerMBean()} publishes the metrics. */
+    public static final String OBJECT_NAME = "model:type=SolutionCache";
+
+    // Solvers keep buffers between calls and are not thread-safe: one per thread
+    private static final ThreadLocal<DancingLinksSolver> SOLVERS = ThreadLocal.withInitial(DancingLinksSolver::new);
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The 128-bit hash of a grid.
+     */
+    private static final class Key {
+        final long hi;
+        final long lo;
+
+        Key(long hi, long lo) {
+            this.hi = hi;
+            this.lo = lo;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).hi == hi && ((Key) other).lo == lo;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lo ^ (lo >>> 32)); // The segment was picked with hi
+        }
+    }
+
+    /**
+     * A solution count, the limit it was counted up to, and the first solution
+     * (row-major, null when there is none).
+     */
+    private static final class Entry {
+        final int count;
+        final int limit;
+        final byte[] solution;
+
+        Entry(int count, int limit, byte[] solution) {
+            this.count = count;
+            this.limit = limit;
+            this.solution = solution;
+        }
+
+        boolean answers(int requested) {
+            return count < limit || requested <= limit;
+        }
+    }
+
+    /**
+     * One stripe of the cache: an access-ordered map evicting its eldest entry
+     * past its capacity. Guarded by its own monitor.
+     */
+    @SuppressWarnings("serial")
+    private static final class Segment extends LinkedHashMap<Key, Entry> {
+        private final int capacity;
+        private final LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity The maximum number of grids kept.
+     * @param stripes  The number of segments, rounded up to a power of two.
+     */
+    public SolutionCache(int capacity, int stripes) {
+        if (capacity < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Expected a positive capacity and at least one stripe.");
+        }
+        int count = Math.min(Integer.highestOneBit(stripes * 2 - 1), Integer.highestOneBit(capacity));
+        int perSegment = (capacity + count - 1) / count;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(perSegment, evictions);
+        }
+        this.capacity = perSegment * count;
+    }
+
+    /**
+     * Counts the solutions like {@link DancingLinksSolver#countAndSolve(int[][], int)},
+     * from the cache when the grid was seen before.
+     *
+     * @param board A 9x9 integer array, 0 for empty cells. Solved in place if it has a solution.
+     * @param limit The maximum number of solutions to count.
+     * @return The number of solutions found, never more than 'limit'.
+     * @throws IllegalArgumentException If the grid is not 9x9 or holds a value outside 0-9.
+     */
+    public int countAndSolve(int[][] board, int limit) {
+        Entry entry = entry(board, limit);
+        if (entry.solution != null) {
+            for (int i = 0; i < 81; i++) {
+                board[i / 9][i % 9] = entry.solution[i];
+            }
+        }
+        return Math.min(entry.count, limit);
+    }
+
+    /**
+     * Counts the solutions of a grid, from the cache when it was seen before.
+     *
+     * @param board A 9x9 integer array, 0 for empty cells. Left unchanged.
+     * @throws IllegalArgumentException If the grid is not 9x9 or holds a value outside 0-9.
+     */
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        return Math.min(entry(board, limit).count, limit);
+    }
+
+    /**
+     * Returns the cached entry answering the limit, solving and storing the grid on a miss.
+     */
+    private Entry entry(int[][] board, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("The limit must be positive.");
+        Key key = key(board);
+        Segment segment = segments[(int) (key.hi >>> 32) & (segments.length - 1)];
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry != null && entry.answers(limit)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+
+        // Solved outside the lock; two threads missing on the same grid both solve it
+        int[][] work = new int[9][];
+        for (int i = 0; i < 9; i++) {
+            work[i] = board[i].clone();
+        }
+        int count = SOLVERS.get().countAndSolve(work, limit);
+        byte[] solution = null;
+        if (count > 0) {
+            solution = new byte[81];
+            for (int i = 0; i < 81; i++) {
+                solution[i] = (byte) work[i / 9][i % 9];
+            }
+        }
+        Entry entry = new Entry(count, limit, solution);
+        synchronized (segment) {
+            Entry current = segment.get(key);
+            if (current == null || current.limit < limit) { // Keep whichever was counted further
+                segment.put(key, entry);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Hashes the grid's cells, packed 16 to a word, into two independently mixed 64-bit halves.
+     */
+    private static Key key(int[][] board) {
+        if (board.length != 9) throw new IllegalArgumentException("The grid must be 9x9.");
+        long hi = 0x9E3779B97F4A7C15L;
+        long lo = 0x6A09E667F3BCC909L;
+        long packed = 0;
+        for (int i = 0; i < 81; i++) {
+            if ((i % 9) == 0 && board[i / 9].length != 9) throw new IllegalArgumentException("The grid must be 9x9.");
+            int value = board[i / 9][i % 9];
+            if (value < 0 || value > 9) {
+                throw new IllegalArgumentException("Invalid value " + value + " at row " + i / 9 + ", column " + i % 9);
+            }
+            packed |= (long) value << ((i & 15) << 2);
+            if ((i & 15) == 15 || i == 80) {
+                hi = mix(hi ^ packed);
+                lo = fmix(lo + packed * 0xC2B2AE3D27D4EB4FL);
+                packed = 0;
+            }
+        }
+        return new Key(hi, lo);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long fmix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Publishes this cache's metrics on the platform MBean server under {@link #OBJECT_NAME}.
+     *
+     * @throws JMException If the name is already registered or the bean is rejected.
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /** Lookups answered from the cache. */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Lookups that had to solve the grid. */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Share of lookups answered from the cache, 0 before the first one. */
+    @Override
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /** Entries dropped to make room; steadily rising with a low hit rate means the cache is too small. */
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** Number of grids currently kept. */
+    @Override
+    public int getSize() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /** Maximum number of grids kept. */
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Drops every entry, keeping the counters. */
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /** Resets the hit, miss and eviction counters. */
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+}
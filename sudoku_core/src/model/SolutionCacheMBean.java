@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * JMX view of {@link SolutionCache}.
+ */
+public interface SolutionCacheMBean {
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getEvictions();
+
+    int getSize();
+
+    int getCapacity();
+
+    void clear();
+
+    void reset();
+}
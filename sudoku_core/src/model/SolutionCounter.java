@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Strategy used to count the solutions of a (partially filled) Sudoku board.
+ * Generation relies on it to check that a puzzle stays uniquely solvable.
+ *
+ * Implementations may keep internal buffers between calls and are therefore
+ * not required to be thread-safe; use one instance per thread.
+ */
+public interface SolutionCounter {
+
+    /**
+     * Counts the solutions of a board, stopping as soon as 'limit' are found.
+     *
+     * @param board A 9x9 integer array (or the solver's size, see {@link PropagationSolver}),
+     *              0 for empty cells. Left unchanged.
+     * @param limit The maximum number of solutions to count.
+     * @return The number of solutions found, never more than 'limit'.
+     */
+    int countSolutions(int[][] board, int limit);
+
+    /**
+     * Returns how many search nodes (guesses) the last call visited, for metrics.
+     * Solvers that do not count them return 0.
+     */
+    default long getNodes() {
+        return 0;
+    }
+}
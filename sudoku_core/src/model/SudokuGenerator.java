@@ -0,0 +1,460 @@
+package model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class SudokuGenerator { 
+
+    private static final int MAX_GRADING_ATTEMPTS = 10; // Candidate puzzles tried before settling for the closest rating
+    private static final int SIZED_GUESS_LIMIT = 512; // Guesses per uniqueness check on non-9x9 grids before giving up on a hole
+
+    /**
+     * Generates a new Sudoku puzzle based on the specified difficulty.
+     * Candidate puzzles are rated by a {@link DifficultyGrader} and the first
+     * one inside the difficulty's rating band is returned.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @return A 9x9 integer array representing the generated Sudoku board.
+     */
+    public static int[][] generate(Difficulty difficulty) { 
+        return generate(difficulty, new BacktrackingSolver());
+    }
+
+    /**
+     * Generates a new Sudoku puzzle, using the given solver for the uniqueness
+     * check performed on every removal attempt.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param solver     The solution counter, e.g. a {@link DancingLinksSolver}.
+     * @return A 9x9 integer array representing the generated Sudoku board.
+     */
+    public static int[][] generate(Difficulty difficulty, SolutionCounter solver) {
+        return generate(difficulty, solver, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generates a new Sudoku puzzle, optionally with 180-degree rotational symmetry:
+     * cells are then emptied in pairs (r, c) and (8 - r, 8 - c).
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param solver     The solution counter used for the uniqueness checks.
+     * @param symmetric  Whether the holes must be rotationally symmetric.
+     * @return A 9x9 integer array representing the generated Sudoku board.
+     */
+    public static int[][] generate(Difficulty difficulty, SolutionCounter solver, boolean symmetric) {
+        return generate(difficulty, solver, ThreadLocalRandom.current(), symmetric);
+    }
+
+    /**
+     * Generates the puzzle identified by a seed. The same difficulty and seed
+     * always produce the same puzzle, on any thread and in any JVM.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param seed       The seed of the puzzle, see {@link PuzzleId}. Only its low
+     *                   58 bits are used, the part a puzzle ID keeps. Changing what
+     *                   a seed produces requires a new {@link PuzzleId#GENERATOR_VERSION}.
+     * @return A 9x9 integer array representing the generated Sudoku board.
+     */
+    public static int[][] generate(Difficulty difficulty, long seed) {
+        return generate(difficulty, new DancingLinksSolver(), new SplittableRandom(PuzzleId.maskSeed(seed)));
+    }
+
+    /**
+     * Generates a puzzle of any size, e.g. {@link SudokuSize#SIZE_16}.
+     * For 9x9 this is {@link #generate(Difficulty, SolutionCounter)} with a
+     * {@link DancingLinksSolver}. Other sizes are not graded: the difficulty
+     * only sets the share of cells emptied, scaled from its 9x9 hole count.
+     *
+     * @param size       The grid size.
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @return A side x side integer array representing the generated board.
+     */
+    public static int[][] generate(SudokuSize size, Difficulty difficulty) {
+        return generate(size, difficulty, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Generates the puzzle of any size identified by a seed.
+     *
+     * @param size       The grid size.
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param seed       The seed of the puzzle. Only its low 58 bits are used, as in
+     *                   {@link #generate(Difficulty, long)}, which gives the same
+     *                   puzzle for {@link SudokuSize#SIZE_9}.
+     * @return A side x side integer array representing the generated board.
+     */
+    public static int[][] generate(SudokuSize size, Difficulty difficulty, long seed) {
+        return generate(size, difficulty, new SplittableRandom(PuzzleId.maskSeed(seed)));
+    }
+
+    /**
+     * Generates many puzzles in parallel on the common fork/join pool.
+     * Each worker draws from its own split of a {@link SplittableRandom}
+     * and owns its own {@link DancingLinksSolver}, so workers share no state.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param count      The number of puzzles to generate.
+     * @return The generated puzzles, each a 9x9 integer array.
+     */
+    public static int[][][] generateBatch(Difficulty difficulty, int count) {
+        return generateStream(difficulty, count).toArray(int[][][]::new);
+    }
+
+    /**
+     * Generates puzzles in parallel like {@link #generateBatch(Difficulty, int)}, but
+     * returns no two puzzles that are equivalent under the Sudoku symmetries:
+     * keys are computed by the workers with {@link CanonicalForm#key(int[][])} and
+     * duplicates are dropped, and replaced, against a {@link LongHashSet}.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param count      The number of puzzles to generate.
+     * @return The generated puzzles, pairwise non-equivalent.
+     */
+    public static int[][][] generateDistinct(Difficulty difficulty, int count) {
+        int[][][] puzzles = new int[count][][];
+        LongHashSet seen = new LongHashSet(count);
+        int found = 0;
+        while (found < count) {
+            int[][][] batch = generateBatch(difficulty, count - found);
+            long[] keys = Arrays.stream(batch).parallel().mapToLong(CanonicalForm::key).toArray();
+            for (int i = 0; i < batch.length; i++) {
+                if (seen.add(keys[i])) puzzles[found++] = batch[i];
+            }
+        }
+        return puzzles;
+    }
+
+    /**
+     * Returns a parallel stream producing 'count' puzzles lazily.
+     * Splitting the stream also splits its random generator, giving every
+     * fork/join worker an independent generator and solver.
+     *
+     * @param difficulty The desired difficulty level (EASY, MEDIUM, HARD).
+     * @param count      The number of puzzles the stream produces.
+     * @return A parallel stream of 9x9 puzzles.
+     */
+    public static Stream<int[][]> generateStream(Difficulty difficulty, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The puzzle count must not be negative.");
+        }
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        return StreamSupport.stream(new PuzzleSpliterator(difficulty, 0, count, random), true);
+    }
+
+    /**
+     * Generates a puzzle drawing every random choice from the given generator.
+     *
+     * @param difficulty The desired difficulty level.
+     * @param solver     The solution counter used for the uniqueness checks.
+     * @param random     The source of randomness, owned by the calling thread.
+     * @return A 9x9 integer array representing the generated Sudoku board.
+     */
+    static int[][] generate(Difficulty difficulty, SolutionCounter solver, RandomGenerator random) {
+        return generate(difficulty, solver, random, false);
+    }
+
+    /**
+     * Generates a puzzle of any size drawing every random choice from the given generator.
+     *
+     * The full grid of a non-9x9 size comes from a shuffled pattern rather than
+     * a randomized search, which at 25x25 could take arbitrarily long; holes are
+     * then dug with a {@link PropagationSolver} checking uniqueness. A check that
+     * runs out of guesses keeps its cell filled, so dense sizes may end with
+     * fewer holes than asked for rather than stall on one hard check.
+     */
+    static int[][] generate(SudokuSize size, Difficulty difficulty, RandomGenerator random) {
+        if (size.getBoxSize() == 3) {
+            return generate(difficulty, new DancingLinksSolver(), random);
+        }
+        GenerationMetrics metrics = GenerationMetrics.current();
+        long start = metrics != null ? System.nanoTime() : 0;
+        int[][] board = patternGrid(size, random);
+        int holes = (int) Math.round(difficulty.getHoles() * (double) size.getCells() / 81);
+        int removed = removeNumbers(board, holes, new PropagationSolver(size, SIZED_GUESS_LIMIT), random, false, metrics);
+        if (metrics != null) {
+            metrics.recordGeneration(System.nanoTime() - start, removed == holes);
+        }
+        return board;
+    }
+
+    /**
+     * Builds a random full grid from the standard pattern
+     * value(r, c) = (box * (r % box) + r / box + c) % side, shuffling bands,
+     * rows within bands, stacks, columns within stacks and the digits.
+     * Each of these keeps the grid valid.
+     */
+    private static int[][] patternGrid(SudokuSize size, RandomGenerator random) {
+        int box = size.getBoxSize();
+        int side = size.getSide();
+        int[] rows = shuffledLines(box, random);
+        int[] cols = shuffledLines(box, random);
+        int[] digits = new int[side];
+        for (int i = 0; i < side; i++) {
+            digits[i] = i + 1;
+        }
+        shuffle(digits, random);
+
+        int[][] grid = new int[side][side];
+        for (int r = 0; r < side; r++) {
+            int row = rows[r];
+            for (int c = 0; c < side; c++) {
+                grid[r][c] = digits[(box * (row % box) + row / box + cols[c]) % side];
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Returns a permutation of the lines 0..box*box-1 that keeps every line in a
+     * band (group of 'box' consecutive lines) together with its band.
+     */
+    private static int[] shuffledLines(int box, RandomGenerator random) {
+        int[] bands = new int[box];
+        int[] inner = new int[box];
+        int[] lines = new int[box * box];
+        for (int i = 0; i < box; i++) {
+            bands[i] = i;
+        }
+        shuffle(bands, random);
+        for (int b = 0; b < box; b++) {
+            for (int i = 0; i < box; i++) {
+                inner[i] = i;
+            }
+            shuffle(inner, random);
+            for (int i = 0; i < box; i++) {
+                lines[b * box + i] = bands[b] * box + inner[i];
+            }
+        }
+        return lines;
+    }
+
+    private static int[][] generate(Difficulty difficulty, SolutionCounter solver, RandomGenerator random, boolean symmetric) {
+        GenerationMetrics metrics = GenerationMetrics.current(); // Read once: null keeps every hook below free
+        long start = metrics != null ? System.nanoTime() : 0;
+        DifficultyGrader grader = new DifficultyGrader();
+        BacktrackingSolver filler = new BacktrackingSolver();
+        int[][] best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        // Dig candidate puzzles until one is rated inside the difficulty's band
+        for (int attempt = 0; attempt < MAX_GRADING_ATTEMPTS && bestDistance > 0; attempt++) {
+            int[][] fullBoard = new int[9][9];
+            long fillStart = metrics != null ? System.nanoTime() : 0;
+            boolean filled = filler.fill(fullBoard, random);
+            if (metrics != null) {
+                metrics.recordFill(System.nanoTime() - fillStart, filler.getNodes());
+            }
+            if (!filled) {
+                continue; // Unexpected failure, try another grid
+            }
+            removeNumbers(fullBoard, difficulty.getHoles(), solver, random, symmetric, metrics);
+            long gradeStart = metrics != null ? System.nanoTime() : 0;
+            int distance = difficulty.distance(grader.grade(fullBoard).getRating());
+            if (metrics != null) {
+                metrics.recordGrading(System.nanoTime() - gradeStart);
+            }
+            if (distance < bestDistance) {
+                best = fullBoard;
+                bestDistance = distance;
+            }
+        }
+        if (metrics != null) {
+            metrics.recordGeneration(System.nanoTime() - start, bestDistance == 0);
+        }
+        return best != null ? best : new int[9][9]; // Return an empty board in case of unexpected failure
+    }
+
+    /**
+     * Checks if a number is valid at a given position on the board.
+     * Scans the row, column and 3x3 block directly; generation and solving keep
+     * incremental digit masks instead to avoid repeating this scan per candidate.
+     *
+     * @param board The board.
+     * @param row   Row index of the cell.
+     * @param col   Column index of the cell.
+     * @param num   Number to be checked.
+     * @return true if the number is valid, false otherwise.
+     */
+    public static boolean isValid(int[][] board, int row, int col, int num) {
+        // Check row
+        for (int x = 0; x < 9; x++) {
+            if (board[row][x] == num) {
+                return false;
+            }
+        }
+
+        // Check column
+        for (int x = 0; x < 9; x++) {
+            if (board[x][col] == num) {
+                return false;
+            }
+        }
+
+        // Check 3x3 block
+        int startRow = (row / 3) * 3; // Renamed from 'linhaBase'
+        int startCol = (col / 3) * 3; // Renamed from 'colunaBase'
+
+        for (int i = startRow; i < startRow + 3; i++) {
+            for (int j = startCol; j < startCol + 3; j++) {
+                if (board[i][j] == num) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes numbers from the board to create the puzzle, up to the requested hole count.
+     *
+     * Cells are visited once, in a random permutation. A cell whose removal breaks
+     * uniqueness is never tried again: emptying more cells only adds solutions, so
+     * it could not be removed later either. When the permutation is exhausted before
+     * the target is met, the puzzle keeps the holes reached so far, which bounds
+     * generation to one uniqueness check per cell. In symmetric mode a pair is
+     * checked once, when the lower of its two cells comes up.
+     *
+     * @param board         The complete board solution, of any size.
+     * @param cellsToRemove The number of holes wanted.
+     * @param solver     The solution counter used for the uniqueness checks.
+     * @param random     Source of randomness for the cells to remove.
+     * @param symmetric  Whether cells are removed in rotationally symmetric pairs.
+     * @param metrics    Collector for every uniqueness check, or null.
+     * @return The number of cells removed.
+     */
+    private static int removeNumbers(int[][] board, int cellsToRemove, SolutionCounter solver,
+            RandomGenerator random, boolean symmetric, GenerationMetrics metrics) {
+        int side = board.length;
+        int cells = side * side;
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        shuffle(order, random);
+
+        int count = 0;
+        for (int i = 0; i < cells && count < cellsToRemove; i++) {
+            int cell = order[i];
+            int row = cell / side;
+            int col = cell % side;
+            int partner = cells - 1 - cell; // Cell mirrored through the center
+            boolean single = !symmetric || partner == cell;
+            if (board[row][col] == 0 || (!single && (cell > partner || count + 2 > cellsToRemove))) {
+                continue; // Already empty, pair tried from its lower cell, or no room left for two holes
+            }
+            // Every check from here on runs the solver, so its node count belongs to this cell
+            long start = metrics != null ? System.nanoTime() : 0;
+            boolean removed;
+            if (single) {
+                // Attempts to remove a number, and only counts if it's uniquely solvable
+                removed = removeNumberIfUnique(board, row, col, solver);
+                if (removed) {
+                    count++;
+                }
+            } else {
+                // Each pair is tried once, when its lower cell comes up in the permutation
+                removed = removePairIfUnique(board, row, col, partner / side, partner % side, solver);
+                if (removed) {
+                    count += 2;
+                }
+            }
+            if (metrics != null) {
+                metrics.recordCheck(System.nanoTime() - start, solver.getNodes(), removed);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Empties two cells together, keeping them only if the solution stays unique.
+     */
+    private static boolean removePairIfUnique(int[][] board, int row1, int col1, int row2, int col2,
+            SolutionCounter solver) {
+        int temp1 = board[row1][col1];
+        int temp2 = board[row2][col2];
+        board[row1][col1] = 0;
+        board[row2][col2] = 0;
+        if (solver.countSolutions(board, 2) != 1) {
+            board[row1][col1] = temp1;
+            board[row2][col2] = temp2;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Attempts to remove a number from the board and checks if the remaining puzzle
+     * still has a unique solution.
+     *
+     * @param board The current board.
+     * @param row   Row of the cell to remove.
+     * @param col   Column of the cell to remove.
+     * @return true if the number was successfully removed and solution remains unique, false otherwise.
+     */
+    public static boolean removeNumberIfUnique(int[][] board, int row, int col) {
+        return removeNumberIfUnique(board, row, col, new BacktrackingSolver());
+    }
+
+    /**
+     * Same as {@link #removeNumberIfUnique(int[][], int, int)}, counting solutions with the given solver.
+     *
+     * @param board  The current board.
+     * @param row    Row of the cell to remove.
+     * @param col    Column of the cell to remove.
+     * @param solver The solution counter used for the uniqueness check.
+     * @return true if the number was successfully removed and solution remains unique, false otherwise.
+     */
+    public static boolean removeNumberIfUnique(int[][] board, int row, int col, SolutionCounter solver) {
+        if (board[row][col] == 0) return false; // Cannot remove if already empty
+
+        int temp = board[row][col]; // Temporarily store the value
+        board[row][col] = 0;         // Remove the number
+
+        // 'limit' is set to 2 because we only care if it's 1 or >1. Finding 2 solutions is enough.
+        if (solver.countSolutions(board, 2) != 1) { // If not a unique solution (0 or >1 solutions)
+            board[row][col] = temp; // Restore the number
+            return false;
+        }
+
+        return true; // Number successfully removed and solution is unique
+    }
+
+    /**
+     * Counts the number of solutions for a given Sudoku board with the iterative
+     * {@link BacktrackingSolver}. It stops searching if 'limit' solutions are found.
+     *
+     * @param board   The Sudoku board to solve. Left unchanged.
+     * @param row     Row to start solving from; the search always covers the whole board, so it must be 0.
+     * @param col     Column to start solving from; must be 0.
+     * @param count   An array whose first element receives the number of solutions found.
+     * @param limit   The maximum number of solutions to count before stopping.
+     * @return Always false, kept for compatibility with the former recursive signature.
+     */
+    public static boolean solveAndCount(int[][] board, int row, int col, int[] count, int limit) {
+        if (row != 0 || col != 0) {
+            throw new IllegalArgumentException("The search always starts at (0, 0).");
+        }
+        count[0] = new BacktrackingSolver().countSolutions(board, limit);
+        return false;
+    }
+
+    /**
+     * Shuffles an int array in place with the Fisher-Yates algorithm.
+     *
+     * @param array  The array to be shuffled.
+     * @param random Source of randomness.
+     */
+    private static void shuffle(int[] array, RandomGenerator random) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+}
\ No newline at end of file
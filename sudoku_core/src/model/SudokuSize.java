@@ -0,0 +1,128 @@
+package model;
+
+/**
+ * Geometry of a Sudoku grid built from square boxes of a given size: a box size
+ * of 2 gives the 4x4 variant, 3 the classic 9x9, 4 the 16x16 and 5 the 25x25.
+ *
+ * Digit sets are held in {@code long} masks, so box sizes up to 8 (64 digits)
+ * are supported. Instances are immutable and shared through {@link #of(int)}.
+ */
+public final class SudokuSize {
+    public static final int MIN_BOX_SIZE = 2;
+    public static final int MAX_BOX_SIZE = 8;
+
+    public static final SudokuSize SIZE_4 = new SudokuSize(2);
+    public static final SudokuSize SIZE_9 = new SudokuSize(3);
+    public static final SudokuSize SIZE_16 = new SudokuSize(4);
+    public static final SudokuSize SIZE_25 = new SudokuSize(5);
+
+    // Every size handed out by of(int), indexed by box size; larger ones are built on first use
+    private static final SudokuSize[] SIZES = {null, null, SIZE_4, SIZE_9, SIZE_16, SIZE_25, null, null, null};
+
+    private final int boxSize;
+    private final int side;
+    private final int cells;
+    private final long allDigits;
+    private final int[][] units; // Rows, then columns, then boxes; each lists its cells
+    private final int[][] peers; // Cells sharing a row, column or box with each cell
+
+    private SudokuSize(int boxSize) {
+        this.boxSize = boxSize;
+        this.side = boxSize * boxSize;
+        this.cells = side * side;
+        this.allDigits = side == 64 ? -1L : (1L << side) - 1;
+
+        units = new int[3 * side][side];
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                units[i][j] = i * side + j;
+                units[side + i][j] = j * side + i;
+                int row = (i / boxSize) * boxSize + j / boxSize;
+                int col = (i % boxSize) * boxSize + j % boxSize;
+                units[2 * side + i][j] = row * side + col;
+            }
+        }
+
+        int peerCount = 3 * side - 2 * boxSize - 1;
+        peers = new int[cells][peerCount];
+        for (int c = 0; c < cells; c++) {
+            int n = 0;
+            for (int p = 0; p < cells; p++) {
+                if (p != c && (row(p) == row(c) || col(p) == col(c) || box(p) == box(c))) {
+                    peers[c][n++] = p;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the size built from boxes of the given size.
+     *
+     * @param boxSize Box side length, from {@value #MIN_BOX_SIZE} to {@value #MAX_BOX_SIZE}.
+     * @throws IllegalArgumentException If the box size is out of range.
+     */
+    public static SudokuSize of(int boxSize) {
+        if (boxSize < MIN_BOX_SIZE || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be between " + MIN_BOX_SIZE + " and " + MAX_BOX_SIZE + ".");
+        }
+        SudokuSize size = SIZES[boxSize];
+        if (size == null) {
+            synchronized (SIZES) {
+                size = SIZES[boxSize];
+                if (size == null) {
+                    size = new SudokuSize(boxSize); // Unit and peer tables are built once per size
+                    SIZES[boxSize] = size;
+                }
+            }
+        }
+        return size;
+    }
+
+    /** Side length of a box. */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /** Side length of the grid, which is also the number of digits. */
+    public int getSide() {
+        return side;
+    }
+
+    /** Number of cells in the grid. */
+    public int getCells() {
+        return cells;
+    }
+
+    /** Mask with one bit set per digit. */
+    public long allDigits() {
+        return allDigits;
+    }
+
+    public int row(int cell) {
+        return cell / side;
+    }
+
+    public int col(int cell) {
+        return cell % side;
+    }
+
+    /** Index of the box containing the cell, in row-major box order. */
+    public int box(int cell) {
+        return (row(cell) / boxSize) * boxSize + col(cell) / boxSize;
+    }
+
+    /** Units (rows, columns, boxes) as lists of cells. Shared; must not be modified. */
+    int[][] units() {
+        return units;
+    }
+
+    /** Peers of every cell. Shared; must not be modified. */
+    int[][] peers() {
+        return peers;
+    }
+
+    @Override
+    public String toString() {
+        return side + "x" + side;
+    }
+}
@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Human solving techniques recognised by {@link DifficultyGrader}, from easiest
+ * to hardest. The rating of a puzzle is the rating of the hardest technique it needs.
+ */
+public enum Technique {
+    NAKED_SINGLE(10),  // The cell has a single candidate left
+    HIDDEN_SINGLE(15), // The digit fits in a single cell of a row, column or box
+    POINTING(26),      // The digit is confined to one row/column inside a box
+    BOX_LINE(28),      // The digit is confined to one box inside a row/column
+    NAKED_PAIR(30),    // Two cells of a unit share the same two candidates
+    X_WING(40);        // The digit forms a rectangle over two rows/columns
+
+    private final int rating;
+
+    Technique(int rating) {
+        this.rating = rating;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Board, generators and solvers, free of any UI dependency so that headless
+ * services can use them.
+ */
+module sudoku_core {
+	requires transitive java.management; // JMX view of the metrics; registerMBean() throws JMException
+
+	exports model;
+}
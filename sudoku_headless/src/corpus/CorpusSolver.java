@@ -0,0 +1,257 @@
+package corpus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.DancingLinksSolver;
+import model.GridText;
+
+/**
+ * Solves and checks a corpus of puzzles, one 81-character grid per line.
+ *
+ * The input is memory-mapped in windows and lines are copied straight from the
+ * mapping into fixed-size batches, without building Strings. Batches are solved
+ * in parallel and written back in input order; only a bounded number of batches
+ * is ever in flight, so memory use does not depend on the size of the file.
+ *
+ * Each output line is "status,solution", where status is one of
+ * {@code unique}, {@code multiple}, {@code unsolvable} or {@code invalid} and the
+ * solution (the first one found, for {@code multiple}) is empty when there is none.
+ *
+ * Usage:
+ *   java corpus.CorpusSolver <input> [output|-] [threads]
+ */
+public class CorpusSolver {
+    private static final long WINDOW = 64L << 20; // Bytes mapped at a time
+    private static final int BATCH = 4096;         // Puzzles per task
+    private static final int OUTPUT_LINE = 11 + GridText.LENGTH + 1; // "unsolvable," + solution + '\n'
+
+    private static final byte[] UNIQUE = ascii("unique,");
+    private static final byte[] MULTIPLE = ascii("multiple,");
+    private static final byte[] UNSOLVABLE = ascii("unsolvable,");
+    private static final byte[] INVALID = ascii("invalid,");
+
+    private final int threads;
+    private final long[] counts = new long[4]; // unique, multiple, unsolvable, invalid
+
+    public CorpusSolver(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed.");
+        this.threads = threads;
+    }
+
+    /**
+     * One block of puzzles: the raw lines going in, the result lines coming out.
+     * Batches are recycled once written, so their buffers are allocated only once.
+     */
+    private static final class Batch {
+        final byte[] input = new byte[BATCH * GridText.LENGTH];
+        final boolean[] wellFormed = new boolean[BATCH]; // Line had exactly 81 characters
+        final byte[] output = new byte[BATCH * OUTPUT_LINE];
+        final int[] statusCounts = new int[4];
+        int size;
+        int outputLength;
+    }
+
+    // Solvers keep buffers between calls and are not thread-safe: one per worker thread
+    private static final ThreadLocal<DancingLinksSolver> SOLVERS = ThreadLocal.withInitial(DancingLinksSolver::new);
+    private static final ThreadLocal<int[][]> GRIDS = ThreadLocal.withInitial(() -> new int[9][9]);
+
+    /**
+     * Processes the whole input.
+     *
+     * @param input  The corpus file.
+     * @param output Where the result lines go.
+     * @return The number of puzzles processed.
+     * @throws IOException If reading or writing fails.
+     */
+    public long run(Path input, WritableByteChannel output) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "corpus-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<Batch>> inFlight = new ArrayDeque<>();
+        ArrayDeque<Batch> free = new ArrayDeque<>();
+        int maxInFlight = 2 * threads; // Enough to keep every worker busy while the oldest is written
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            Batch batch = new Batch();
+            while (position < size) {
+                long length = Math.min(WINDOW, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int limit = (int) length;
+                int start = 0;
+                while (start < limit) {
+                    int end = indexOf(window, (byte) '\n', start, limit);
+                    if (end < 0) {
+                        if (!last) break; // Incomplete line: the next window starts with it
+                        end = limit;
+                    }
+                    int lineEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+                    if (lineEnd > start) { // Blank lines are skipped
+                        add(batch, window, start, lineEnd - start);
+                        if (batch.size == BATCH) {
+                            total += batch.size;
+                            inFlight.add(workers.submit(solveTask(batch)));
+                            if (inFlight.size() >= maxInFlight) free.add(write(inFlight.poll(), output));
+                            batch = free.isEmpty() ? new Batch() : free.poll();
+                            batch.size = 0;
+                        }
+                    }
+                    start = end + 1;
+                }
+                if (start == 0 && !last) {
+                    throw new IOException("Line longer than " + WINDOW + " bytes at offset " + position);
+                }
+                position += Math.min(start, limit);
+            }
+            if (batch.size > 0) {
+                total += batch.size;
+                inFlight.add(workers.submit(solveTask(batch)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), output);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of puzzles per status, in the order unique,
+     * multiple, unsolvable, invalid.
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    private static void add(Batch batch, ByteBuffer window, int start, int length) {
+        int index = batch.size++;
+        batch.wellFormed[index] = length == GridText.LENGTH;
+        if (batch.wellFormed[index]) {
+            window.get(start, batch.input, index * GridText.LENGTH, GridText.LENGTH);
+        }
+    }
+
+    private static Callable<Batch> solveTask(Batch batch) {
+        return () -> {
+            solve(batch);
+            return batch;
+        };
+    }
+
+    /**
+     * Solves every puzzle of a batch and fills its output lines. Runs on a worker thread.
+     */
+    private static void solve(Batch batch) {
+        DancingLinksSolver solver = SOLVERS.get();
+        int[][] grid = GRIDS.get();
+        int out = 0;
+        Arrays.fill(batch.statusCounts, 0);
+        for (int i = 0; i < batch.size; i++) {
+            int solutions = -1;
+            if (batch.wellFormed[i]) {
+                try {
+                    GridText.parse(batch.input, i * GridText.LENGTH, grid);
+                    solutions = solver.countAndSolve(grid, 2);
+                } catch (IllegalArgumentException e) {
+                    solutions = -1; // Not a grid line
+                }
+            }
+            byte[] status = solutions == 1 ? UNIQUE : solutions == 2 ? MULTIPLE : solutions == 0 ? UNSOLVABLE : INVALID;
+            batch.statusCounts[solutions == 1 ? 0 : solutions == 2 ? 1 : solutions == 0 ? 2 : 3]++;
+            System.arraycopy(status, 0, batch.output, out, status.length);
+            out += status.length;
+            if (solutions > 0) {
+                GridText.format(grid, batch.output, out);
+                out += GridText.LENGTH;
+            }
+            batch.output[out++] = '\n';
+        }
+        batch.outputLength = out;
+    }
+
+    /**
+     * Waits for a batch, writes its result lines and tallies its statuses.
+     *
+     * @return The batch, ready for reuse.
+     */
+    private Batch write(Future<Batch> pending, WritableByteChannel output) throws IOException {
+        Batch batch;
+        try {
+            batch = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Solving failed.", e.getCause());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.output, 0, batch.outputLength);
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        for (int s = 0; s < counts.length; s++) {
+            counts[s] += batch.statusCounts[s];
+        }
+        return batch;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) return i;
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: CorpusSolver <input> [output|-] [threads]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        String target = args.length > 1 ? args[1] : "-";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        CorpusSolver solver = new CorpusSolver(threads);
+        long start = System.nanoTime();
+        long total;
+        try (WritableByteChannel output = target.equals("-")
+                ? Channels.newChannel(System.out)
+                : FileChannel.open(Paths.get(target), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            total = solver.run(input, output);
+        } catch (IOException e) {
+            System.err.println("ERROR processing corpus: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] counts = solver.getCounts();
+        System.err.printf("%d puzzles in %.2f s (%.0f puzzles/s): %d unique, %d multiple, %d unsolvable, %d invalid%n",
+                total, seconds, total / seconds, counts[0], counts[1], counts[2], counts[3]);
+    }
+}
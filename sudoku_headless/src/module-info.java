@@ -0,0 +1,9 @@
+/**
+ * Headless entry points: the HTTP API and the corpus solver. Needs no
+ * {@code java.desktop}.
+ */
+module sudoku_headless {
+	requires sudoku_core;
+	requires jdk.httpserver;
+	requires java.management;
+}
@@ -0,0 +1,323 @@
+package server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import model.AutoSaver;
+import model.Board;
+import model.GameCodec;
+import model.LatencyHistogram;
+
+/**
+ * The games being played on the server, each a {@link Board} under a random
+ * 64-bit session ID.
+ *
+ * Boards are not thread-safe, so every access to a session holds the lock of
+ * its stripe: one of a fixed set of locks picked by hashing the ID. Requests
+ * for different sessions almost never wait on each other, while two requests
+ * for the same session are applied one after the other.
+ *
+ * Sessions left idle longer than the idle timeout are written to the session
+ * directory in the binary {@link GameCodec} format (about 60 bytes each) and
+ * dropped from memory; the next request for one reads it back transparently.
+ * Closing the manager writes every session out, so a restarted server resumes
+ * them; from then on it refuses every request.
+ *
+ * While in memory, each session keeps its move count and move latency (mean
+ * and maximum, lock wait included); all moves also go into one server-wide
+ * {@link LatencyHistogram}.
+ */
+final class SessionManager implements AutoCloseable {
+    static final int MOVED = 0;
+    static final int FIXED = 1;
+    static final int CONFLICT = 2;
+
+    private static final String EXTENSION = ".sav";
+
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final Object[] stripes;
+    private final Path directory;
+    private final long idleNanos;
+    private final ScheduledExecutorService evictor;
+
+    private final LatencyHistogram moveTimes = new LatencyHistogram();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * One game and its counters, guarded by the lock of its stripe.
+     */
+    private static final class Session {
+        final Board board;
+        long lastAccess; // System.nanoTime() of the last request
+        long moves;
+        long moveNanos;
+        long maxMoveNanos;
+
+        Session(Board board) {
+            this.board = board;
+            this.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * Creates a manager and starts its eviction task.
+     *
+     * @param directory   Where idle sessions are written; created if missing.
+     * @param stripes     The number of locks, rounded up to a power of two.
+     * @param idleTimeout How long a session stays in memory without requests.
+     * @param unit        The unit of the timeout.
+     * @throws IOException If the directory cannot be created.
+     */
+    SessionManager(Path directory, int stripes, long idleTimeout, TimeUnit unit) throws IOException {
+        if (stripes < 1 || idleTimeout <= 0) {
+            throw new IllegalArgumentException("Expected at least one stripe and a positive idle timeout.");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.stripes = new Object[Integer.highestOneBit(stripes * 2 - 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Object();
+        }
+        this.idleNanos = unit.toNanos(idleTimeout);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, unit.toMillis(idleTimeout) / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleQuietly, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @param puzzle The 9x9 puzzle; its non-zero cells become fixed.
+     * @return The ID of the new session.
+     * @throws IllegalStateException If the manager is closed.
+     */
+    long create(int[][] puzzle) {
+        Board board = new Board();
+        board.setInitialPuzzle(puzzle);
+        while (true) {
+            long id = ThreadLocalRandom.current().nextLong();
+            synchronized (stripe(id)) {
+                checkOpen();
+                if (!sessions.containsKey(id) && !Files.exists(file(id))) {
+                    sessions.put(id, new Session(board));
+                    return id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays a move, refusing it on a fixed cell or when it breaks the rules.
+     *
+     * @return {@link #MOVED}, {@link #FIXED} or {@link #CONFLICT}.
+     * @throws IllegalArgumentException If the session does not exist.
+     */
+    int move(long id, int row, int col, int value) {
+        long start = System.nanoTime();
+        synchronized (stripe(id)) {
+            Session session = resident(id);
+            int result;
+            if (session.board.isCellFixed(row, col)) {
+                result = FIXED;
+            } else if (!session.board.isValidMove(row, col, value)) {
+                result = CONFLICT;
+            } else {
+                session.board.setCellValue(row, col, value);
+                result = MOVED;
+            }
+            long end = System.nanoTime();
+            long elapsed = end - start;
+            session.lastAccess = end;
+            session.moves++;
+            session.moveNanos += elapsed;
+            session.maxMoveNanos = Math.max(session.maxMoveNanos, elapsed);
+            moveTimes.record(elapsed);
+            return result;
+        }
+    }
+
+    /**
+     * Reads a session's board under its lock. The board must not escape the reader.
+     *
+     * @throws IllegalArgumentException If the session does not exist.
+     */
+    <T> T read(long id, Function<Board, T> reader) {
+        synchronized (stripe(id)) {
+            Session session = resident(id);
+            session.lastAccess = System.nanoTime();
+            return reader.apply(session.board);
+        }
+    }
+
+    /**
+     * Returns a session's move count, mean and maximum move latency in nanoseconds.
+     *
+     * @throws IllegalArgumentException If the session does not exist.
+     */
+    long[] moveStats(long id) {
+        synchronized (stripe(id)) {
+            Session session = resident(id);
+            long mean = session.moves == 0 ? 0 : session.moveNanos / session.moves;
+            return new long[] {session.moves, mean, session.maxMoveNanos};
+        }
+    }
+
+    /** Number of sessions currently in memory. */
+    int residentCount() {
+        return sessions.size();
+    }
+
+    LatencyHistogram getMoveTimes() {
+        return moveTimes;
+    }
+
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * Writes out and drops every session idle for longer than the timeout.
+     *
+     * @return The number of sessions evicted.
+     * @throws IOException If a session cannot be written; it then stays in memory.
+     */
+    int evictIdle() throws IOException {
+        long cutoff = System.nanoTime() - idleNanos;
+        int evicted = 0;
+        for (Long id : sessions.keySet()) {
+            synchronized (stripe(id)) {
+                Session session = sessions.get(id);
+                // A request may have touched or removed it since the scan began
+                if (session != null && session.lastAccess - cutoff < 0) {
+                    evict(id, session);
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Stops evicting and writes every session to the directory. Requests
+     * arriving afterwards are refused, so no session is read back into memory
+     * once it has been written out.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        for (Object stripe : stripes) {
+            synchronized (stripe) {
+                // Waits out requests that took the lock before the flag was set
+            }
+        }
+        for (Long id : sessions.keySet()) {
+            synchronized (stripe(id)) {
+                Session session = sessions.get(id);
+                if (session == null) continue;
+                try {
+                    evict(id, session);
+                } catch (IOException e) {
+                    System.err.println("ERROR saving session " + toString(id) + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Formats a session ID for clients.
+     */
+    static String toString(long id) {
+        return Long.toUnsignedString(id, Character.MAX_RADIX);
+    }
+
+    /**
+     * Parses a session ID sent by a client.
+     *
+     * @throws IllegalArgumentException If the text is not an ID.
+     */
+    static long parse(String text) {
+        try {
+            return Long.parseUnsignedLong(text, Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid session: " + text);
+        }
+    }
+
+    private void evictIdleQuietly() {
+        try {
+            evictIdle();
+        } catch (IOException e) {
+            System.err.println("ERROR evicting idle sessions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a session to its file with {@link AutoSaver#writeAtomically}, so the
+     * file is on disk before the only other copy is dropped from memory, and a
+     * crash never leaves a partial save. Called under its stripe lock.
+     */
+    private void evict(long id, Session session) throws IOException {
+        AutoSaver.writeAtomically(file(id), GameCodec.encodeFile(session.board));
+        sessions.remove(id);
+        evictions.increment();
+    }
+
+    /**
+     * Returns the session in memory, reading it back from its file if it was evicted.
+     * Called under its stripe lock.
+     *
+     * @throws IllegalStateException If the manager is closed.
+     */
+    private Session resident(long id) {
+        checkOpen();
+        Session session = sessions.get(id);
+        if (session != null) return session;
+
+        Path path = file(id);
+        if (!Files.exists(path)) throw new IllegalArgumentException("Unknown session: " + toString(id));
+        try {
+            Board board = new Board();
+            GameCodec.decodeFile(Files.readAllBytes(path), board);
+            session = new Session(board);
+            sessions.put(id, session);
+            Files.delete(path); // Memory is the live copy again
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot reload session " + toString(id), e);
+        }
+        reloads.increment();
+        return session;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("The session manager is closed.");
+    }
+
+    private Object stripe(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    private Path file(long id) {
+        return directory.resolve(toString(id) + EXTENSION);
+    }
+}
@@ -0,0 +1,247 @@
+package server;
+
+import java.util.Map;
+
+import model.Board;
+import model.ConstraintMasks;
+import model.Difficulty;
+import model.GridText;
+import model.LatencyHistogram;
+import model.PuzzleId;
+import model.PuzzleMultiplier;
+import model.PuzzlePool;
+import model.SolutionCache;
+
+/**
+ * The operations behind the HTTP endpoints. Each takes the decoded query
+ * parameters and returns a JSON object; bad input is reported with an
+ * {@link IllegalArgumentException}.
+ *
+ * Grids travel in the 81-character form of {@link GridText}. Rows and
+ * columns are 0-based, as in {@link Board}.
+ */
+final class SudokuApi {
+    private final PuzzlePool pool;
+    private final PuzzleMultiplier multiplier;
+    private final SessionManager sessions;
+    private final SolutionCache solutions; // Shared puzzles are solved once, not on every /solve and /hint
+
+    SudokuApi(PuzzlePool pool, PuzzleMultiplier multiplier, SessionManager sessions, SolutionCache solutions) {
+        this.pool = pool;
+        this.multiplier = multiplier;
+        this.sessions = sessions;
+        this.solutions = solutions;
+    }
+
+    /**
+     * GET /generate?difficulty=EASY|MEDIUM|HARD, served from the puzzle pool, or
+     * GET /generate?id=... to rebuild a specific puzzle from its {@link PuzzleId}.
+     * With source=seeds the puzzle is derived from a seed by a symmetry transform
+     * instead, which costs microseconds for bulk clients.
+     */
+    String generate(Map<String, String> query) {
+        String id = query.get("id");
+        if (id != null) {
+            long packed = PuzzleId.parse(id);
+            return "{\"id\":\"" + PuzzleId.toString(packed) + "\",\"puzzle\":\"" + GridText.format(PuzzleId.generate(packed)) + "\"}";
+        }
+        Difficulty difficulty = difficulty(query.getOrDefault("difficulty", "EASY"));
+        int[][] puzzle;
+        switch (query.getOrDefault("source", "pool")) {
+            case "pool":
+                puzzle = pool.take(difficulty);
+                break;
+            case "seeds":
+                puzzle = multiplier.next(difficulty);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown source: " + query.get("source"));
+        }
+        return "{\"difficulty\":\"" + difficulty + "\",\"puzzle\":\"" + GridText.format(puzzle) + "\"}";
+    }
+
+    /**
+     * GET /validate?puzzle=...&amp;values=...&amp;row=r&amp;col=c&amp;value=v.
+     * 'values' is the current state of the game, the puzzle itself if omitted.
+     */
+    String validate(Map<String, String> query) {
+        Board board = board(query);
+        int row = index(query, "row");
+        int col = index(query, "col");
+        int value = integer(query, "value");
+        if (value < 0 || value > 9) throw new IllegalArgumentException("value must be between 0 and 9.");
+
+        if (board.isCellFixed(row, col)) return "{\"valid\":false,\"reason\":\"fixed\"}";
+        if (!board.isValidMove(row, col, value)) return "{\"valid\":false,\"reason\":\"conflict\"}";
+        return "{\"valid\":true}";
+    }
+
+    /**
+     * GET /solve?puzzle=... Counts solutions up to two and returns the first one.
+     */
+    String solve(Map<String, String> query) {
+        int[][] grid = GridText.parse(required(query, "puzzle"));
+        int count = solutions.countAndSolve(grid, 2);
+        if (count == 0) return "{\"solutions\":0,\"unique\":false}";
+        return "{\"solutions\":" + count + ",\"unique\":" + (count == 1) + ",\"solution\":\"" + GridText.format(grid) + "\"}";
+    }
+
+    /**
+     * GET /hint?puzzle=...&amp;values=... Points out the first wrong value, if any,
+     * otherwise reveals the empty cell with the fewest candidates. Puzzles with
+     * more than one solution are refused: a value could be right in one solution
+     * and wrong in the other.
+     */
+    String hint(Map<String, String> query) {
+        int[][] solution = GridText.parse(required(query, "puzzle"));
+        int[][] values = query.containsKey("values") ? GridText.parse(query.get("values")) : null;
+        // Counted up to two like /solve, so both share one cache entry per puzzle
+        int found = solutions.countAndSolve(solution, 2);
+        if (found == 0) throw new IllegalArgumentException("The puzzle has no solution.");
+        if (found > 1) throw new IllegalArgumentException("The puzzle has more than one solution.");
+        if (values == null) values = GridText.parse(query.get("puzzle"));
+
+        // A wrong value must be corrected before any other hint makes sense
+        for (int i = 0; i < 81; i++) {
+            int value = values[i / 9][i % 9];
+            if (value != 0 && value != solution[i / 9][i % 9]) {
+                return hint(i, solution, true);
+            }
+        }
+
+        ConstraintMasks masks = ConstraintMasks.of(values);
+        int best = -1;
+        int bestCount = 10;
+        for (int i = 0; i < 81; i++) {
+            if (values[i / 9][i % 9] != 0) continue;
+            int count = Integer.bitCount(masks.candidates(i / 9, i % 9));
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+            }
+        }
+        return best < 0 ? "{\"solved\":true}" : hint(best, solution, false);
+    }
+
+    /**
+     * GET /session/new?difficulty=... Starts a game kept on the server.
+     */
+    String newSession(Map<String, String> query) {
+        int[][] puzzle = pool.take(difficulty(query.getOrDefault("difficulty", "EASY")));
+        long id = sessions.create(puzzle);
+        return "{\"session\":\"" + SessionManager.toString(id) + "\",\"puzzle\":\"" + GridText.format(puzzle) + "\"}";
+    }
+
+    /**
+     * GET /session/move?session=...&amp;row=r&amp;col=c&amp;value=v. A value of 0 clears the cell.
+     */
+    String move(Map<String, String> query) {
+        long id = SessionManager.parse(required(query, "session"));
+        int row = index(query, "row");
+        int col = index(query, "col");
+        int value = integer(query, "value");
+        if (value < 0 || value > 9) throw new IllegalArgumentException("value must be between 0 and 9.");
+
+        switch (sessions.move(id, row, col, value)) {
+            case SessionManager.FIXED:
+                return "{\"applied\":false,\"reason\":\"fixed\"}";
+            case SessionManager.CONFLICT:
+                return "{\"applied\":false,\"reason\":\"conflict\"}";
+            default:
+                return "{\"applied\":true,\"solved\":" + sessions.read(id, Board::isSolved) + "}";
+        }
+    }
+
+    /**
+     * GET /session/state?session=... The current values and the session's move latency.
+     */
+    String sessionState(Map<String, String> query) {
+        long id = SessionManager.parse(required(query, "session"));
+        String state = sessions.read(id, board -> {
+            StringBuilder values = new StringBuilder(GridText.LENGTH);
+            for (int i = 0; i < 81; i++) {
+                values.append((char) ('0' + board.getCellValue(i / 9, i % 9)));
+            }
+            return "\"values\":\"" + values + "\",\"solved\":" + board.isSolved();
+        });
+        long[] stats = sessions.moveStats(id);
+        return "{" + state + ",\"moves\":" + stats[0] + ",\"meanMoveMicros\":" + stats[1] / 1000
+                + ",\"maxMoveMicros\":" + stats[2] / 1000 + "}";
+    }
+
+    /**
+     * GET /sessions: sessions in memory, evictions and the server-wide move latency.
+     */
+    String sessions(Map<String, String> query) {
+        LatencyHistogram moves = sessions.getMoveTimes();
+        return "{\"resident\":" + sessions.residentCount()
+                + ",\"evictions\":" + sessions.getEvictionCount()
+                + ",\"reloads\":" + sessions.getReloadCount()
+                + ",\"moves\":" + moves.getCount()
+                + ",\"moveP50Micros\":" + moves.getPercentileNanos(50) / 1000
+                + ",\"moveP99Micros\":" + moves.getPercentileNanos(99) / 1000
+                + ",\"moveMaxMicros\":" + moves.getMaxNanos() / 1000 + "}";
+    }
+
+    /**
+     * GET /cache: hits, misses and evictions of the solution cache, to size it.
+     */
+    String cache(Map<String, String> query) {
+        return "{\"size\":" + solutions.getSize()
+                + ",\"capacity\":" + solutions.getCapacity()
+                + ",\"hits\":" + solutions.getHits()
+                + ",\"misses\":" + solutions.getMisses()
+                + ",\"hitRate\":" + Math.round(solutions.getHitRate() * 1000) / 1000.0
+                + ",\"evictions\":" + solutions.getEvictions() + "}";
+    }
+
+    private static String hint(int cell, int[][] solution, boolean correction) {
+        return "{\"row\":" + cell / 9 + ",\"col\":" + cell % 9 + ",\"value\":" + solution[cell / 9][cell % 9]
+                + ",\"correction\":" + correction + "}";
+    }
+
+    /**
+     * Builds a board from 'puzzle' (the fixed cells) and optional 'values' (the moves made).
+     */
+    private static Board board(Map<String, String> query) {
+        Board board = new Board();
+        board.setInitialPuzzle(GridText.parse(required(query, "puzzle")));
+        String values = query.get("values");
+        if (values != null) {
+            int[][] grid = GridText.parse(values);
+            for (int i = 0; i < 81; i++) {
+                board.setCellValue(i / 9, i % 9, grid[i / 9][i % 9]); // Fixed cells are left alone
+            }
+        }
+        return board;
+    }
+
+    private static Difficulty difficulty(String name) {
+        try {
+            return Difficulty.valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown difficulty: " + name);
+        }
+    }
+
+    private static int index(Map<String, String> query, String name) {
+        int value = integer(query, name);
+        if (value < 0 || value > 8) throw new IllegalArgumentException(name + " must be between 0 and 8.");
+        return value;
+    }
+
+    private static int integer(Map<String, String> query, String name) {
+        String text = required(query, name);
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + text);
+        }
+    }
+
+    private static String required(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) throw new IllegalArgumentException("Missing parameter: " + name);
+        return value;
+    }
+}
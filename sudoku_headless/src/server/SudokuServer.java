@@ -0,0 +1,255 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.management.JMException;
+
+import model.GenerationMetrics;
+import model.PuzzleMultiplier;
+import model.PuzzlePool;
+import model.SolutionCache;
+
+/**
+ * Local HTTP API for headless puzzle generation and checking.
+ *
+ * Endpoints (GET, JSON responses, see {@link SudokuApi}):
+ *   /generate  /validate  /solve  /hint
+ *   /session/new  /session/move  /session/state  /sessions  /cache
+ *
+ * Requests are handled on a fixed pool of worker threads, one per core by
+ * default, each with its own solver; generation is served from a
+ * {@link PuzzlePool} so that it rarely pays for a new puzzle, or derived from
+ * a few seed puzzles by a {@link PuzzleMultiplier} on request. Started from
+ * the command line, the server also publishes the {@link GenerationMetrics}
+ * over JMX. Solutions are kept in a {@link SolutionCache}, whose metrics are
+ * served at /cache and over JMX.
+ *
+ * Games played through the session endpoints live in a {@link SessionManager};
+ * idle ones are kept in the session directory.
+ *
+ * Usage:
+ *   java server.SudokuServer [port] [threads] [session directory]
+ */
+public class SudokuServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 1024;
+    private static final int POOL_CAPACITY = 64;
+    private static final int POOL_LOW_WATER = 16;
+    private static final int SEEDS_PER_DIFFICULTY = 16;
+    private static final int SESSION_STRIPES_PER_THREAD = 16;
+    private static final long SESSION_IDLE_MINUTES = 10;
+    private static final int SOLUTION_CACHE_ENTRIES = 1 << 15; // About 8 MB
+    private static final int SOLUTION_CACHE_STRIPES_PER_THREAD = 4;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY every
+        // keep-alive response waits out the client's delayed ACK (about 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer http;
+    private final ExecutorService workers;
+    private final PuzzlePool pool;
+    private final SessionManager sessions;
+    private final SolutionCache solutions;
+
+    /**
+     * Creates a server bound to the given address, keeping idle sessions in a
+     * directory under the system temporary directory.
+     *
+     * @param address The address to listen on; port 0 picks a free port.
+     * @param threads The number of worker threads.
+     * @throws IOException If the address cannot be bound.
+     */
+    public SudokuServer(InetSocketAddress address, int threads) throws IOException {
+        this(address, threads, Paths.get(System.getProperty("java.io.tmpdir"), "sudoku-sessions"));
+    }
+
+    /**
+     * Creates a server bound to the given address. Call {@link #start()} to accept requests.
+     *
+     * @param address    The address to listen on; port 0 picks a free port.
+     * @param threads    The number of worker threads.
+     * @param sessionDir Where idle sessions are written.
+     * @throws IOException If the address cannot be bound or the directory cannot be created.
+     */
+    public SudokuServer(InetSocketAddress address, int threads, Path sessionDir) throws IOException {
+        if (threads < 1) throw new IllegalArgumentException("At least one worker thread is needed.");
+        // Bound first: a port in use fails before any background thread is started
+        this.http = HttpServer.create(address, BACKLOG);
+        PuzzleMultiplier multiplier;
+        try {
+            multiplier = PuzzleMultiplier.generate(SEEDS_PER_DIFFICULTY);
+            this.sessions = new SessionManager(sessionDir, threads * SESSION_STRIPES_PER_THREAD,
+                    SESSION_IDLE_MINUTES, TimeUnit.MINUTES);
+        } catch (IOException | RuntimeException e) {
+            http.stop(0); // Releases the port
+            throw e;
+        }
+        this.pool = new PuzzlePool(POOL_CAPACITY, POOL_LOW_WATER); // Starts generating; nothing below can fail
+        this.solutions = new SolutionCache(SOLUTION_CACHE_ENTRIES, threads * SOLUTION_CACHE_STRIPES_PER_THREAD);
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        SudokuApi api = new SudokuApi(pool, multiplier, sessions, solutions);
+        route("/generate", api::generate);
+        route("/validate", api::validate);
+        route("/solve", api::solve);
+        route("/hint", api::hint);
+        route("/session/new", api::newSession);
+        route("/session/move", api::move);
+        route("/session/state", api::sessionState);
+        route("/sessions", api::sessions);
+        route("/cache", api::cache);
+        http.setExecutor(workers);
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    /**
+     * Returns the address the server listens on, with the actual port.
+     */
+    public InetSocketAddress getAddress() {
+        return http.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, waits for the requests in flight, then stops
+     * the puzzle pool and writes every session to the session directory.
+     */
+    @Override
+    public void close() {
+        http.stop(0);
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("WARNING: requests still running after " + CLOSE_TIMEOUT_SECONDS + " s; saving sessions anyway.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.close();
+        sessions.close(); // Refuses the requests that may still be running
+    }
+
+    private void route(String path, Function<Map<String, String>, String> operation) {
+        http.createContext(path, exchange -> {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    respond(exchange, 405, error("Only GET is supported."));
+                    return;
+                }
+                // Contexts match by prefix; only the exact path is an endpoint
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    respond(exchange, 404, error("Not found."));
+                    return;
+                }
+                String body;
+                try {
+                    body = operation.apply(parseQuery(exchange.getRequestURI().getRawQuery()));
+                } catch (IllegalArgumentException e) {
+                    respond(exchange, 400, error(e.getMessage()));
+                    return;
+                } catch (RuntimeException e) {
+                    respond(exchange, 500, error("Internal error."));
+                    return;
+                }
+                respond(exchange, 200, body);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String error(String message) {
+        if (message == null) message = "Bad request.";
+        StringBuilder json = new StringBuilder("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') json.append('\\');
+            json.append(c < ' ' ? ' ' : c);
+        }
+        return json.append("\"}").toString();
+    }
+
+    /**
+     * Decodes a raw query string ("a=1&b=2") into a map.
+     */
+    static Map<String, String> parseQuery(String raw) {
+        Map<String, String> query = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return query;
+        int start = 0;
+        while (start <= raw.length()) {
+            int end = raw.indexOf('&', start);
+            if (end < 0) end = raw.length();
+            int eq = raw.indexOf('=', start);
+            if (eq > start && eq < end) {
+                query.put(decode(raw.substring(start, eq)), decode(raw.substring(eq + 1, end)));
+            } else if (end > start) {
+                query.put(decode(raw.substring(start, end)), "");
+            }
+            start = end + 1;
+        }
+        return query;
+    }
+
+    private static String decode(String text) {
+        return text.indexOf('%') < 0 && text.indexOf('+') < 0 ? text : URLDecoder.decode(text, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Path sessionDir = args.length > 2 ? Paths.get(args[2]) : Paths.get("sessions");
+
+        try {
+            GenerationMetrics.enable().registerMBean();
+        } catch (JMException e) {
+            System.err.println("WARNING: generation metrics not published over JMX: " + e.getMessage());
+        }
+
+        // Local API: listen on the loopback interface only
+        SudokuServer server = new SudokuServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), threads, sessionDir);
+        try {
+            server.solutions.registerMBean();
+        } catch (JMException e) {
+            System.err.println("WARNING: solution cache metrics not published over JMX: " + e.getMessage());
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("Sudoku API listening on http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+}
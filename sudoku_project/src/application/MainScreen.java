@@ -1,90 +1,66 @@
 package application; 
 
 import java.awt.BorderLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import javax.swing.*;
 
+import model.AutoSaver;
 import model.Difficulty;
-import model.SudokuGenerator;
+import model.PuzzlePool;
 import model.Board;
+import model.MoveJournal;
 import view.BoardPanel;
 
 public class MainScreen {
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            String[] options = {"Easy", "Medium", "Hard"};
-            int choice = JOptionPane.showOptionDialog(null,
-                    "Choose difficulty level:", 
-                    "Difficulty",
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.QUESTION_MESSAGE,
-                    null,
-                    options,
-                    options[0]);
-
-            if (choice == JOptionPane.CLOSED_OPTION) {
-                System.exit(0);
-            }
+    private static final String SAVE_FILE = "saved_game.sav"; // Binary save; convert old .txt saves with SaveConverter
+    private static final String AUTOSAVE_FILE = "autosave.sav"; // Kept apart so autosaving never overwrites a manual save
 
-            Difficulty difficulty = Difficulty.EASY;
-            if (choice == 1) {
-                difficulty = Difficulty.MEDIUM;
-            } else if (choice == 2) {
-                difficulty = Difficulty.HARD;
-            }
-
-            int[][] generatedGrid = null;
-            try {
-                generatedGrid = SudokuGenerator.generate(difficulty);
-            } catch (Exception e) {
-                System.err.println("ERROR generating Sudoku grid: " + e.getMessage());
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(null, "Internal error generating Sudoku. Please restart.");
-                System.exit(1);
-            }
+    public static void main(String[] args) {
+        // Starts generating in the background while the player picks a difficulty
+        PuzzlePool puzzlePool = new PuzzlePool(2, 0);
 
+        SwingUtilities.invokeLater(() -> {
             Board board = new Board();
-            try {
-                board.setInitialPuzzle(generatedGrid);
-            } catch (Exception e) {
-                System.err.println("ERROR setting initial puzzle on Board: " + e.getMessage());
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(null, "Internal error configuring the board. Please restart.");
-                System.exit(1);
+            if (!resumeAutosave(board)) {
+                startNewGame(board, puzzlePool);
             }
 
-            BoardPanel boardPanel = new BoardPanel(board);
-            try {
-                boardPanel.updateFields();
-            } catch (Exception e) {
-                System.err.println("ERROR updating BoardPanel fields: " + e.getMessage());
-                e.printStackTrace();
-                JOptionPane.showMessageDialog(null, "Visual error setting up the board. Please restart.");
-                System.exit(1);
-            }
+            BoardPanel boardPanel = new BoardPanel(board); // Repaints itself on every board change
+            // Every move is saved in the background, bursts of moves in one write
+            AutoSaver autoSaver = AutoSaver.start(board, Paths.get(AUTOSAVE_FILE), AutoSaver.DEFAULT_DELAY_MILLIS);
 
             JFrame frame = new JFrame("Sudoku");
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    autoSaver.close(); // Writes the last moves before the exit
+                }
+            });
             frame.setSize(500, 500);
 
             JPanel buttonPanel = new JPanel();
 
             JButton saveButton = new JButton("Save");
-            saveButton.addActionListener(e -> {
-                try {
-                    board.saveGame("saved_game.txt");
-                    JOptionPane.showMessageDialog(frame, "Game saved successfully!");
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                    JOptionPane.showMessageDialog(frame, "Error saving game.");
-                }
-            });
+            // Written on the autosave thread, so the two fsyncs never block the UI
+            saveButton.addActionListener(e -> autoSaver.saveCopy(Paths.get(SAVE_FILE)).whenComplete((done, ex) ->
+                    SwingUtilities.invokeLater(() -> {
+                        if (ex != null) {
+                            ex.printStackTrace();
+                            JOptionPane.showMessageDialog(frame, "Error saving game.");
+                        } else {
+                            JOptionPane.showMessageDialog(frame, "Game saved successfully!");
+                        }
+                    })));
 
             JButton loadButton = new JButton("Load");
             loadButton.addActionListener(e -> {
                 try {
-                    board.loadGame("saved_game.txt");
-                    boardPanel.updateFields();
+                    board.loadGame(SAVE_FILE);
                     JOptionPane.showMessageDialog(frame, "Game loaded successfully!");
                 } catch (IOException ex) {
                     ex.printStackTrace();
@@ -92,6 +68,18 @@ public class MainScreen {
                 }
             });
 
+            JButton undoButton = new JButton("Undo");
+            undoButton.addActionListener(e -> board.undo());
+
+            JButton redoButton = new JButton("Redo");
+            redoButton.addActionListener(e -> board.redo());
+
+            JCheckBox notesBox = new JCheckBox("Notes");
+            notesBox.addActionListener(e -> boardPanel.setPencilMarks(notesBox.isSelected()));
+
+            buttonPanel.add(notesBox);
+            buttonPanel.add(undoButton);
+            buttonPanel.add(redoButton);
             buttonPanel.add(saveButton);
             buttonPanel.add(loadButton);
 
@@ -99,6 +87,75 @@ public class MainScreen {
             frame.add(buttonPanel, BorderLayout.SOUTH);
             frame.setVisible(true);
             frame.setLocationRelativeTo(null);
+            boardPanel.requestFocusInWindow(); // Typing goes to the grid
         });
     }
+
+    /**
+     * Offers to continue the game autosaved in an earlier session.
+     * @return True if the player accepted and the autosave loaded.
+     */
+    private static boolean resumeAutosave(Board board) {
+        if (!Files.exists(Paths.get(AUTOSAVE_FILE))) return false;
+        int choice = JOptionPane.showConfirmDialog(null,
+                "Resume your last game?",
+                "Sudoku",
+                JOptionPane.YES_NO_OPTION);
+        if (choice != JOptionPane.YES_OPTION) return false;
+        try {
+            board.loadGame(AUTOSAVE_FILE);
+            board.startJournal(MoveJournal.DEFAULT_CAPACITY);
+            return true;
+        } catch (IOException e) {
+            System.err.println("ERROR loading autosave: " + e.getMessage());
+            JOptionPane.showMessageDialog(null, "The last game could not be restored. Starting a new one.");
+            return false;
+        }
+    }
+
+    /**
+     * Asks for a difficulty and puts a puzzle from the pool on the board.
+     */
+    private static void startNewGame(Board board, PuzzlePool puzzlePool) {
+        String[] options = {"Easy", "Medium", "Hard"};
+        int choice = JOptionPane.showOptionDialog(null,
+                "Choose difficulty level:", 
+                "Difficulty",
+                JOptionPane.DEFAULT_OPTION,
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                options,
+                options[0]);
+
+        if (choice == JOptionPane.CLOSED_OPTION) {
+            System.exit(0);
+        }
+
+        Difficulty difficulty = Difficulty.EASY;
+        if (choice == 1) {
+            difficulty = Difficulty.MEDIUM;
+        } else if (choice == 2) {
+            difficulty = Difficulty.HARD;
+        }
+
+        int[][] generatedGrid = null;
+        try {
+            generatedGrid = puzzlePool.take(difficulty);
+        } catch (Exception e) {
+            System.err.println("ERROR generating Sudoku grid: " + e.getMessage());
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Internal error generating Sudoku. Please restart.");
+            System.exit(1);
+        }
+
+        try {
+            board.setInitialPuzzle(generatedGrid);
+            board.startJournal(MoveJournal.DEFAULT_CAPACITY);
+        } catch (Exception e) {
+            System.err.println("ERROR setting initial puzzle on Board: " + e.getMessage());
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Internal error configuring the board. Please restart.");
+            System.exit(1);
+        }
+    }
 }
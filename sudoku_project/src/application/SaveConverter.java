@@ -0,0 +1,45 @@
+package application;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import model.Board;
+import model.GameArchive;
+
+/**
+ * Command-line converter from the legacy text save format to the binary formats.
+ *
+ * Usage:
+ *   java application.SaveConverter <input.txt> <output.sav>
+ *   java application.SaveConverter --archive <archive.sda> <input.txt>...
+ */
+public class SaveConverter {
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: SaveConverter <input.txt> <output.sav>");
+            System.err.println("       SaveConverter --archive <archive.sda> <input.txt>...");
+            System.exit(2);
+        }
+
+        Board board = new Board();
+        try {
+            if (args[0].equals("--archive")) {
+                try (GameArchive archive = GameArchive.open(Paths.get(args[1]))) {
+                    for (int i = 2; i < args.length; i++) {
+                        board.importTextGame(args[i]);
+                        long index = archive.append(board);
+                        System.out.println(args[i] + " -> #" + index);
+                    }
+                    archive.flush();
+                }
+            } else {
+                board.importTextGame(args[0]);
+                board.saveGame(args[1]);
+                System.out.println(args[0] + " -> " + args[1]);
+            }
+        } catch (IOException e) {
+            System.err.println("ERROR converting save: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -6,4 +6,5 @@
  */
 module sudoku_project {
 	requires java.desktop;
+	requires sudoku_core;
 }
\ No newline at end of file
@@ -1,93 +1,244 @@
-package view; 
+package view;
 
 import javax.swing.*;
 
 import model.Board;
+import model.BoardListener;
 
 import java.awt.*;
 import java.awt.event.*;
 
+/**
+ * The Sudoku grid as a single custom-painted component.
+ *
+ * The panel listens to its {@link Board} and repaints only the cells reported
+ * as changed (the whole grid while pencil marks are shown, since a move changes
+ * the candidates of its row, column and block); painting skips every cell
+ * outside the clip. One component, one key
+ * listener and one flash timer serve all 81 cells.
+ *
+ * Click a cell or move with the arrow keys to select it, type 1-9 to fill it,
+ * and 0, Backspace, Delete or Space to clear it. A move that breaks the rules
+ * is refused and the cell flashes red.
+ */
 @SuppressWarnings("serial")
-public class BoardPanel extends JPanel {
-    private JTextField[][] fields = new JTextField[9][9];
-    private Board board;
+public class BoardPanel extends JComponent implements BoardListener {
+    private static final int PREFERRED_CELL = 48;
+    private static final int FLASH_MILLIS = 300;
+    private static final Color SELECTED = new Color(0xCC, 0xE0, 0xFF);
+
+    private final Board board;
+    private final Timer flashTimer; // Ends the red flash of a refused move
+    private boolean pencilMarks; // Show the candidates of empty cells
+    private int selected = 0;   // Row-major index of the selected cell
+    private int flashing = -1;  // Cell flashing red, -1 if none
+
+    // Fonts are derived once per cell size rather than on every paint
+    private int fontCell;
+    private Font valueFont;
+    private Font markFont;
 
     public BoardPanel(Board board) {
         this.board = board;
-        setLayout(new GridLayout(9, 9));
-        initializeFields(); 
-    }
+        this.flashTimer = new Timer(FLASH_MILLIS, e -> {
+            int cell = flashing;
+            flashing = -1;
+            repaintCell(cell);
+        });
+        flashTimer.setRepeats(false);
+        setPreferredSize(new Dimension(9 * PREFERRED_CELL + 1, 9 * PREFERRED_CELL + 1));
+        setFocusable(true);
+        setOpaque(true);
+        board.addListener(this);
 
-    public void updateFields() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                int value = board.getCellValue(i, j); // Gets the current cell value
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0) select(cell);
+            }
+        });
+        addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                repaintCell(selected);
+            }
 
-                // Sets the field text
-                if (value != 0) {
-                    fields[i][j].setText(String.valueOf(value));
-                } else {
-                    fields[i][j].setText(""); // Ensures empty fields don't show '0'
+            @Override
+            public void focusLost(FocusEvent e) {
+                repaintCell(selected);
+            }
+        });
+        addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_UP: move(-9); return;
+                    case KeyEvent.VK_DOWN: move(9); return;
+                    case KeyEvent.VK_LEFT: move(-1); return;
+                    case KeyEvent.VK_RIGHT: move(1); return;
+                    case KeyEvent.VK_BACK_SPACE:
+                    case KeyEvent.VK_DELETE:
+                    case KeyEvent.VK_SPACE: enter(0); return;
+                    default:
                 }
+                char c = e.getKeyChar();
+                if (c >= '0' && c <= '9') enter(c - '0');
+            }
+        });
+    }
 
-                // Applies fixed status and colors
-                if (board.isCellFixed(i, j)) { // If the cell is fixed (consulting the Board)
-                    fields[i][j].setEditable(false); // DISABLES EDITING
-                    fields[i][j].setBackground(Color.LIGHT_GRAY); // Gray background
-                    fields[i][j].setForeground(Color.BLUE); // Blue text color
-                } else { // If the cell is not fixed (editable by the user)
-                    fields[i][j].setEditable(true); // ENABLES EDITING
-                    fields[i][j].setBackground(Color.WHITE); // White background
-                    fields[i][j].setForeground(Color.BLACK); // Black text color
-                }
+    /**
+     * Shows or hides the candidate digits of every empty cell.
+     */
+    public void setPencilMarks(boolean pencilMarks) {
+        this.pencilMarks = pencilMarks;
+        repaint();
+    }
+
+    public boolean isPencilMarks() {
+        return pencilMarks;
+    }
+
+    @Override
+    public void cellsChanged(long lo, long hi) {
+        if (pencilMarks) {
+            // Candidates change along the whole row, column and block of a changed cell
+            repaint();
+            return;
+        }
+        for (long bits = lo; bits != 0; bits &= bits - 1) {
+            repaintCell(Long.numberOfTrailingZeros(bits));
+        }
+        for (long bits = hi; bits != 0; bits &= bits - 1) {
+            repaintCell(64 + Long.numberOfTrailingZeros(bits));
+        }
+    }
+
+    private void enter(int value) {
+        int row = selected / 9;
+        int col = selected % 9;
+        if (board.isCellFixed(row, col)) return;
+        if (!board.isValidMove(row, col, value)) {
+            int previous = flashing;
+            flashing = selected;
+            repaintCell(previous);
+            repaintCell(flashing);
+            flashTimer.restart();
+            return;
+        }
+        board.setCellValue(row, col, value); // Repainted through cellsChanged
+        if (value != 0 && board.isSolved()) {
+            JOptionPane.showMessageDialog(this, "Congratulations! You completed the Sudoku!");
+        }
+    }
+
+    private void move(int delta) {
+        int cell = selected + delta;
+        // Left and right stay on the same row
+        if (cell < 0 || cell >= 81 || (Math.abs(delta) == 1 && cell / 9 != selected / 9)) return;
+        select(cell);
+    }
+
+    private void select(int cell) {
+        int previous = selected;
+        selected = cell;
+        repaintCell(previous);
+        repaintCell(cell);
+    }
+
+    /**
+     * Returns the side of a cell in pixels for the current size.
+     */
+    private int cellSize() {
+        return Math.max(1, (Math.min(getWidth(), getHeight()) - 1) / 9);
+    }
+
+    private int cellAt(int x, int y) {
+        int size = cellSize();
+        int col = x / size;
+        int row = y / size;
+        return row < 9 && col < 9 ? row * 9 + col : -1;
+    }
+
+    private void repaintCell(int cell) {
+        if (cell < 0) return;
+        int size = cellSize();
+        repaint((cell % 9) * size, (cell / 9) * size, size + 1, size + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int size = cellSize();
+        if (size != fontCell) {
+            fontCell = size;
+            valueFont = new Font("Arial", Font.BOLD, size / 2);
+            markFont = new Font("Arial", Font.PLAIN, Math.max(6, size / 5));
+        }
+
+        g.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+        g.fillRect(0, 0, getWidth(), getHeight());
+
+        // Only the cells meeting the clip are painted
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        int firstRow = Math.max(0, clip.y / size);
+        int lastRow = Math.min(8, (clip.y + clip.height) / size);
+        int firstCol = Math.max(0, clip.x / size);
+        int lastCol = Math.min(8, (clip.x + clip.width) / size);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                paintCell(g, row, col, size);
             }
         }
+
+        // Box borders on top of the cell borders
+        g.setColor(Color.BLACK);
+        g.setStroke(new BasicStroke(2));
+        for (int k = 0; k <= 9; k += 3) {
+            g.drawLine(k * size, 0, k * size, 9 * size);
+            g.drawLine(0, k * size, 9 * size, k * size);
+        }
     }
 
-    private void initializeFields() {
-        for (int i = 0; i < 9; i++) {
-            for (int j = 0; j < 9; j++) {
-                JTextField field = new JTextField();
-                field.setHorizontalAlignment(JTextField.CENTER);
-                field.setFont(new Font("Arial", Font.BOLD, 24));
-                field.setBorder(javax.swing.BorderFactory.createLineBorder(Color.DARK_GRAY));
-                
-                int row = i;
-                int col = j; 
-                field.addKeyListener(new KeyAdapter() {
-                    @Override
-                    public void keyReleased(KeyEvent e) {
-                        if (!field.isEditable()) { // Important: only acts if editable
-                            return;
-                        }
-                        String text = field.getText(); 
-                        if (text.matches("[1-9]")) {
-                            int value = Integer.parseInt(text); 
-                            if (board.isValidMove(row, col, value)) { 
-                                board.setCellValue(row, col, value); 
-                                if (board.isSolved()) {
-                                    JOptionPane.showMessageDialog(null, "Congratulations! You completed the Sudoku!");
-                                }
-                            } else {
-                                field.setBackground(Color.RED); // Visual feedback for error
-                                Timer timer = new Timer(300, new ActionListener() { // Returns to normal after 300ms
-                                    public void actionPerformed(ActionEvent evt) {
-                                        field.setBackground(Color.WHITE);
-                                    }
-                                });
-                                timer.setRepeats(false);
-                                timer.start();
-                                field.setText(""); // Clears the field for invalid value
-                                JOptionPane.showMessageDialog(null, "Invalid value!");
-                            }
-                        } else if (!text.isEmpty()) {
-                            field.setText(""); // Clears if the input is not a valid number
-                        }
-                    }
-                });
-                fields[i][j] = field;
-                add(field);
+    private void paintCell(Graphics2D g, int row, int col, int size) {
+        int index = row * 9 + col;
+        int x = col * size;
+        int y = row * size;
+        boolean fixed = board.isCellFixed(row, col);
+
+        Color background = fixed ? Color.LIGHT_GRAY : Color.WHITE;
+        if (index == selected && hasFocus()) background = SELECTED;
+        if (index == flashing) background = Color.RED;
+        g.setColor(background);
+        g.fillRect(x, y, size, size);
+        g.setColor(Color.DARK_GRAY);
+        g.drawRect(x, y, size, size);
+
+        int value = board.getCellValue(row, col);
+        if (value != 0) {
+            g.setFont(valueFont);
+            g.setColor(fixed ? Color.BLUE : Color.BLACK);
+            drawCentered(g, String.valueOf(value), x, y, size);
+        } else if (pencilMarks && !fixed) {
+            int candidates = board.candidates(row, col);
+            g.setFont(markFont);
+            g.setColor(Color.GRAY);
+            int third = size / 3;
+            for (int d = 1; d <= 9; d++) {
+                if ((candidates & (1 << (d - 1))) != 0) {
+                    drawCentered(g, String.valueOf(d), x + ((d - 1) % 3) * third, y + ((d - 1) / 3) * third, third);
+                }
             }
         }
     }
+
+    private static void drawCentered(Graphics2D g, String text, int x, int y, int size) {
+        FontMetrics metrics = g.getFontMetrics();
+        g.drawString(text, x + (size - metrics.stringWidth(text)) / 2,
+                y + (size - metrics.getHeight()) / 2 + metrics.getAscent());
+    }
 }